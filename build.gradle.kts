@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("org.jetbrains.intellij") version "1.7.0"
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 group "com.hemajoo.commerce.plugin"
@@ -28,7 +29,21 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok:1.18.24")
     implementation("org.ressec.core:core-extension-i18n:1.0")
     //implementation 'org.ressec.lychee:lychee-localization:0.4.0-SNAPSHOT' // Future dependency to use
-    testCompileOnly("junit:junit:4.13.2")
+    testImplementation("junit:junit:4.13.2")
+}
+
+// Benchmarks run outside of the IDE, they need the IntelliJ Platform classes on their classpath.
+configurations.named("jmhImplementation") {
+    extendsFrom(configurations.compileOnly.get())
+}
+
+// Configure JMH benchmarks (src/jmh/java), run with: ./gradlew jmh
+jmh {
+    jmhVersion.set("1.35")
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
 }
 
 tasks {
@@ -52,4 +67,25 @@ tasks {
     publishPlugin {
         token.set(System.getenv("PUBLISH_TOKEN"))
     }
+
+    // Translates a resource bundle in a headless IDE, run with:
+    // ./gradlew translateBundle -PtranslateProject=<project-dir> -PtranslateBundle=<bundle-file> -PtranslateTargets=fr,de [-PtranslateSource=en] [-PtranslateProvider=google]
+    // or, to translate all the resource bundles of the project:
+    // ./gradlew translateBundle -PtranslateProject=<project-dir> -PtranslateAll [-PtranslateProvider=google]
+    // The paths are relative to the directory of this build, the IDE runs in its own working directory.
+    register<org.jetbrains.intellij.tasks.RunIdeTask>("translateBundle") {
+        group = "intellij"
+        description = "Translates a resource bundle without opening the IDE window."
+
+        args = listOfNotNull(
+            "translate-bundle",
+            project.findProperty("translateProject")?.let { file(it).absolutePath },
+            project.findProperty("translateBundle")?.let { file(it).absolutePath },
+            if (project.hasProperty("translateAll")) "--all" else null,
+            project.findProperty("translateTargets")?.let { "--targets=$it" },
+            project.findProperty("translateSource")?.let { "--source=$it" },
+            project.findProperty("translateProvider")?.let { "--provider=$it" }
+        )
+        jvmArgs = listOf("-Djava.awt.headless=true")
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.benchmark;
+
+import com.hemajoo.commerce.plugin.rbt.translation.GoogleTranslationResponseReader;
+import com.hemajoo.commerce.plugin.rbt.translation.GoogleTranslationResult;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the decoding of the {@code Google Translate API} responses and the extraction of their translation.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GoogleTranslationResultBenchmark
+{
+    /**
+     * Number of sentences of the response (1 for a single entry, more for a batch).
+     */
+    @Param({ "1", "50", "1000" })
+    private int sentences;
+
+    /**
+     * JSON response.
+     */
+    private String response;
+
+    /**
+     * Decoded response.
+     */
+    private GoogleTranslationResult result;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        StringWriter writer = new StringWriter();
+        try (JsonWriter json = new JsonWriter(writer))
+        {
+            json.beginObject();
+            json.name("sentences").beginArray();
+            for (int i = 0; i < sentences; i++)
+            {
+                json.beginObject()
+                        .name("trans").value("Ceci est la phrase traduite num\u00e9ro " + i + "\n")
+                        .name("orig").value("This is the translated sentence number " + i + "\n")
+                        .name("backend").value(3)
+                        .endObject();
+            }
+            json.endArray();
+            json.name("src").value("en");
+            json.name("confidence").value(1.0);
+            json.endObject();
+        }
+
+        response = writer.toString();
+        result = GoogleTranslationResponseReader.read(new StringReader(response));
+    }
+
+    @Benchmark
+    public GoogleTranslationResult read() throws IOException
+    {
+        return GoogleTranslationResponseReader.read(new StringReader(response));
+    }
+
+    @Benchmark
+    public String getTranslation()
+    {
+        return result.getTranslation();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.benchmark;
+
+import com.hemajoo.commerce.plugin.rbt.util.HTMLString;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link HTMLString} operations used to build and read the tool window labels.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HTMLStringBenchmark
+{
+    /**
+     * Label of a translation file as displayed in the tool window.
+     */
+    private String label;
+
+    @Setup
+    public void setup()
+    {
+        HTMLString html = new HTMLString();
+        html.append("messages_pt_BR.properties (");
+        html.append(HTMLString.Color.GREY_BLUE_400, "language=Portuguese");
+        html.append(HTMLString.Color.GREY_BLUE_400, ", country=Brazil");
+        html.append(")");
+        label = html.toString();
+    }
+
+    @Benchmark
+    public String removeHtml()
+    {
+        return HTMLString.removeHtml(label);
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.benchmark;
+
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents an embeddable local mock of the {@code Google Translate API} used to exercise the translation pipeline
+ * without network access.
+ * <br>
+ * Each line of the query text is answered with a deterministic pseudo translation: {@code [<target language>] <line>}.
+ * The server can be configured to delay its answers and to inject server errors ({@code 503}) and throttled
+ * answers ({@code 429} with a {@code Retry-After} header) at a given rate. Injected failures are drawn from a seeded
+ * random generator so a run is reproducible for a given request order.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class MockTranslationServer implements AutoCloseable
+{
+    /**
+     * Path of the translation API exposed by the server.
+     */
+    public static final String PATH = "/translate_a/t";
+
+    /**
+     * Underlying HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * Executor handling the requests.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Random generator used to inject the failures.
+     */
+    private final Random random;
+
+    /**
+     * Fixed latency (in milliseconds) added to each answer.
+     */
+    @Getter
+    @Setter
+    private volatile long latency;
+
+    /**
+     * Maximum random latency (in milliseconds) added to the fixed latency of each answer.
+     */
+    @Getter
+    @Setter
+    private volatile long latencyJitter;
+
+    /**
+     * Rate (between 0 and 1) of requests answered with a server error.
+     */
+    @Getter
+    @Setter
+    private volatile double errorRate;
+
+    /**
+     * Rate (between 0 and 1) of requests answered as throttled.
+     */
+    @Getter
+    @Setter
+    private volatile double throttleRate;
+
+    /**
+     * Value (in seconds) of the {@code Retry-After} header of the throttled answers, no header if negative.
+     */
+    @Getter
+    @Setter
+    private volatile int retryAfter = 1;
+
+    /**
+     * Number of requests received.
+     */
+    private final AtomicLong requestCount = new AtomicLong();
+
+    /**
+     * Number of requests answered with a server error.
+     */
+    private final AtomicLong errorCount = new AtomicLong();
+
+    /**
+     * Number of requests answered as throttled.
+     */
+    private final AtomicLong throttleCount = new AtomicLong();
+
+    /**
+     * Starts a new mock translation server on a free local port.
+     * @throws IOException Thrown in case the server cannot be started.
+     */
+    public MockTranslationServer() throws IOException
+    {
+        this(0, 0);
+    }
+
+    /**
+     * Starts a new mock translation server.
+     * @param port Local port to listen to, {@code 0} for a free port.
+     * @param seed Seed of the random generator used to inject the latencies and the failures.
+     * @throws IOException Thrown in case the server cannot be started.
+     */
+    public MockTranslationServer(final int port, final long seed) throws IOException
+    {
+        random = new Random(seed);
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Returns the translation API endpoint of the server.
+     * @return Endpoint.
+     */
+    public String getEndpoint()
+    {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    /**
+     * Returns the number of requests received.
+     * @return Number of requests.
+     */
+    public long getRequestCount()
+    {
+        return requestCount.get();
+    }
+
+    /**
+     * Returns the number of requests answered with a server error.
+     * @return Number of requests.
+     */
+    public long getErrorCount()
+    {
+        return errorCount.get();
+    }
+
+    /**
+     * Returns the number of requests answered as throttled.
+     * @return Number of requests.
+     */
+    public long getThrottleCount()
+    {
+        return throttleCount.get();
+    }
+
+    /**
+     * Answers a translation request.
+     * @param exchange HTTP exchange.
+     * @throws IOException Thrown in case an error occurred while answering the request.
+     */
+    private void handle(final @NonNull HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            requestCount.incrementAndGet();
+
+            double draw;
+            long delay = latency;
+            synchronized (random)
+            {
+                draw = random.nextDouble();
+                if (latencyJitter > 0)
+                {
+                    delay += (long) (random.nextDouble() * latencyJitter);
+                }
+            }
+
+            sleep(delay);
+
+            if (draw < throttleRate + errorRate)
+            {
+                // The embedded HTTP server drops the connection after an error answer, tell the client not to reuse it.
+                exchange.getResponseHeaders().add("Connection", "close");
+            }
+
+            if (draw < throttleRate)
+            {
+                throttleCount.incrementAndGet();
+                if (retryAfter >= 0)
+                {
+                    exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfter));
+                }
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+
+            if (draw < throttleRate + errorRate)
+            {
+                errorCount.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            String text = null;
+            String language = null;
+            String query = exchange.getRequestURI().getRawQuery();
+
+            for (String parameter : query != null ? query.split("&") : new String[0])
+            {
+                String[] parts = parameter.split("=", 2);
+                if (parts.length == 2 && parts[0].equals("q"))
+                {
+                    text = URLDecoder.decode(parts[1], StandardCharsets.UTF_8);
+                }
+                else if (parts.length == 2 && parts[0].equals("tl"))
+                {
+                    language = parts[1];
+                }
+            }
+
+            if (text == null || language == null)
+            {
+                exchange.getResponseHeaders().add("Connection", "close");
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(200, 0);
+            writeTranslation(exchange, text, language);
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Writes the pseudo translation of a text, one sentence per line as the {@code Google Translate API} does.
+     * @param exchange HTTP exchange.
+     * @param text Text to translate.
+     * @param language Target language.
+     * @throws IOException Thrown in case an error occurred while writing the answer.
+     */
+    private void writeTranslation(final @NonNull HttpExchange exchange, final @NonNull String text, final @NonNull String language) throws IOException
+    {
+        Writer writer = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8);
+        try (JsonWriter json = new JsonWriter(writer))
+        {
+            json.beginObject();
+            json.name("sentences").beginArray();
+
+            String[] lines = text.split("\n", -1);
+            for (int i = 0; i < lines.length; i++)
+            {
+                String separator = i < lines.length - 1 ? "\n" : "";
+                json.beginObject()
+                        .name("trans").value("[" + language + "] " + lines[i] + separator)
+                        .name("orig").value(lines[i] + separator)
+                        .endObject();
+            }
+
+            json.endArray();
+            json.name("src").value("en");
+            json.endObject();
+        }
+    }
+
+    /**
+     * Waits for a given delay.
+     * @param delay Delay (in milliseconds).
+     */
+    private static void sleep(final long delay)
+    {
+        if (delay <= 0)
+        {
+            return;
+        }
+
+        try
+        {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.benchmark;
+
+import com.hemajoo.commerce.plugin.rbt.model.TranslationFileName;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the parsing of the resource bundle properties file names.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TranslationFileNameBenchmark
+{
+    /**
+     * File names of a directory mixing resource bundle files and unrelated files.
+     */
+    private static final String[] NAMES = {
+            "messages.properties",
+            "messages_fr.properties",
+            "messages_de.properties",
+            "messages_pt_BR.properties",
+            "application_dev.properties",
+            "README.md",
+            "logback.xml",
+            "module-info.java"
+    };
+
+    @Benchmark
+    public void parse(final Blackhole blackhole)
+    {
+        for (String name : NAMES)
+        {
+            blackhole.consume(TranslationFileName.of(name));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.benchmark;
+
+import com.hemajoo.commerce.plugin.rbt.service.AbstractTranslationExecutor;
+import com.hemajoo.commerce.plugin.rbt.service.AsyncTranslationExecutor;
+import com.hemajoo.commerce.plugin.rbt.service.TranslationExecutor;
+import com.hemajoo.commerce.plugin.rbt.translation.*;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import org.openjdk.jmh.annotations.*;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.google.GoogleTranslationRequest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks an end-to-end translation run (request preparation, batching, HTTP requests, decoding and parallel
+ * execution) of a resource bundle into several target locales against a local mock translation server.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TranslationPipelineBenchmark
+{
+    /**
+     * Target locales.
+     */
+    private static final Locale[] TARGETS = { Locale.FRENCH, Locale.GERMAN, Locale.ITALIAN, new Locale("es") };
+
+    /**
+     * Number of entries of the source resource bundle.
+     */
+    @Param({ "100", "1000" })
+    private int entries;
+
+    /**
+     * Maximum number of entries per batch (1 disables batching).
+     */
+    @Param({ "1", "50" })
+    private int batchSize;
+
+    /**
+     * Execution engine: one worker thread per target locale or asynchronous requests from a single thread.
+     */
+    @Param({ "threaded", "async" })
+    private String engine;
+
+    /**
+     * Number of target locales translated in parallel (threaded engine) or of requests in flight (async engine).
+     */
+    @Param({ "1", "4" })
+    private int parallelism;
+
+    /**
+     * Rate of requests throttled by the translation server.
+     */
+    @Param({ "0", "0.1" })
+    private double throttleRate;
+
+    private MockTranslationServer server;
+    private TranslationHttpClient httpClient;
+    private HttpClient asyncHttpClient;
+    private ExecutorService executor;
+    private String source;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        server = new MockTranslationServer();
+        server.setThrottleRate(throttleRate);
+        server.setRetryAfter(-1);
+        httpClient = new TranslationHttpClient(20, 10, 30, 60);
+        executor = Executors.newFixedThreadPool(parallelism);
+        asyncHttpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < entries; i++)
+        {
+            builder.append("key.").append(i).append("=This is the sentence number ").append(i).append('\n');
+        }
+        source = builder.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        executor.shutdownNow();
+        httpClient.close();
+        server.close();
+    }
+
+    @Benchmark
+    public int translate()
+    {
+        // No translation memory, each run has to go through the provider.
+        GoogleTranslatorProcessor processor = new GoogleTranslatorProcessor(
+                server.getEndpoint(),
+                httpClient,
+                asyncHttpClient,
+                null,
+                new TranslationRateLimiter(Double.MAX_VALUE, Integer.MAX_VALUE),
+                new TranslationRetryPolicy(10, 1, 10),
+                batchSize,
+                Integer.MAX_VALUE);
+
+        List<ITranslationProcess> processes = new ArrayList<>();
+        for (Locale target : TARGETS)
+        {
+            GoogleTranslationRequest request = new GoogleTranslationRequest();
+            request.setSourceLocale(Locale.ENGLISH);
+            request.setTargetLocale(target);
+            request.setSourceProperties(source);
+            request.setTargetProperties("");
+
+            ITranslationProcess process = new ProviderTranslationProcess(processor);
+            process.setRequest(request);
+            processes.add(process);
+        }
+
+        AbstractTranslationExecutor translator = engine.equals("async")
+                ? new AsyncTranslationExecutor(processes, parallelism, executor)
+                : new TranslationExecutor(processes, executor);
+        translator.execute(new EmptyProgressIndicator(ModalityState.NON_MODAL));
+
+        return translator.getFailures().size();
+    }
+}
@@ -17,8 +17,6 @@
 package com.hemajoo.commerce.plugin.rbt.action;
 
 import com.hemajoo.commerce.plugin.rbt.message.MessageActivate;
-import com.hemajoo.commerce.plugin.rbt.model.PropertiesModel;
-import com.hemajoo.commerce.plugin.rbt.model.PropertiesModelException;
 import com.hemajoo.commerce.plugin.rbt.model.TranslationFile;
 import com.hemajoo.commerce.plugin.rbt.service.RBTService;
 import com.intellij.lang.Language;
@@ -61,14 +59,10 @@ public final class ActionActivate extends AnAction
                 TranslationFile sourceTranslation = new TranslationFile(selectedFile);
                 if (sourceTranslation.isValid())
                 {
-                    try
-                    {
-                        service.setModel(project,new PropertiesModel(project,  sourceTranslation));
-                    }
-                    catch (PropertiesModelException e)
-                    {
-                        e.printStackTrace();
-                    }
+                    // The resource bundle is collected off the event dispatch thread, the tool window is notified
+                    // once it is loaded.
+                    service.loadModel(project, sourceTranslation);
+                    return;
                 }
             }
         }
@@ -0,0 +1,69 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.action;
+
+import com.hemajoo.commerce.plugin.rbt.message.MessageResume;
+import com.hemajoo.commerce.plugin.rbt.service.RBTService;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Action associated to the {@code I18n Resource Bundle Translator} plugin used to resume the last interrupted
+ * translation run of the project.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class ActionResume extends AnAction
+{
+    /**
+     * Creates a new action instance.
+     */
+    public ActionResume()
+    {
+        super("Resume", "Resume the last interrupted translation.", AllIcons.Actions.Resume);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent event)
+    {
+        MessageResume publisher = Objects.requireNonNull(
+                event.getProject()).getMessageBus().syncPublisher(
+                        MessageResume.MESSAGE_TOPIC_RESUME);
+        publisher.resume();
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent event)
+    {
+        super.update(event);
+
+        boolean enabled = false;
+
+        if (event.getProject() != null)
+        {
+            RBTService service = event.getProject().getService(RBTService.class);
+            enabled = service != null && service.hasResumableRun(event.getProject());
+        }
+
+        event.getPresentation().setEnabled(enabled);
+        event.getPresentation().setVisible(true);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.action;
+
+import com.hemajoo.commerce.plugin.rbt.provider.ITranslationProvider;
+import com.hemajoo.commerce.plugin.rbt.service.RBTService;
+import com.hemajoo.commerce.plugin.rbt.service.RBTSettings;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.actionSystem.ex.ComboBoxAction;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+
+/**
+ * Action associated to the {@code I18n Resource Bundle Translator} plugin used to select the translation provider of
+ * the next translation runs.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class ActionSelectProvider extends ComboBoxAction
+{
+    @Override
+    protected @NotNull DefaultActionGroup createPopupActionGroup(JComponent button)
+    {
+        DefaultActionGroup group = new DefaultActionGroup();
+
+        for (ITranslationProvider provider : RBTService.getProviders())
+        {
+            group.add(new SelectProvider(provider));
+        }
+
+        return group;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent event)
+    {
+        super.update(event);
+
+        event.getPresentation().setText(RBTService.getProvider(RBTSettings.getInstance().getTranslationProvider()).getName());
+        event.getPresentation().setDescription("Translation provider");
+    }
+
+    /**
+     * Action selecting a translation provider.
+     */
+    private static final class SelectProvider extends AnAction
+    {
+        /**
+         * Translation provider.
+         */
+        private final ITranslationProvider provider;
+
+        /**
+         * Creates a new action instance.
+         * @param provider Translation provider.
+         */
+        private SelectProvider(final @NonNull ITranslationProvider provider)
+        {
+            super(provider.getName());
+            this.provider = provider;
+        }
+
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent event)
+        {
+            RBTSettings.getInstance().setTranslationProvider(provider.getId());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.action;
+
+import com.hemajoo.commerce.plugin.rbt.service.RBTService;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
+import icons.Icons;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Action associated to the {@code I18n Resource Bundle Translator} plugin used to translate all the resource bundles
+ * of the project in a single run.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class ActionTranslateAll extends AnAction
+{
+    /**
+     * Creates a new action instance.
+     */
+    public ActionTranslateAll()
+    {
+        super("Translate All", "Translate all the resource bundles of the project.", Icons.TranslateToolbarIcon2);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent event)
+    {
+        Project project = Objects.requireNonNull(event.getProject());
+        RBTService service = project.getService(RBTService.class);
+
+        if (service != null)
+        {
+            service.executeAll(project);
+        }
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent event)
+    {
+        super.update(event);
+
+        event.getPresentation().setEnabled(event.getProject() != null);
+        event.getPresentation().setVisible(true);
+    }
+}
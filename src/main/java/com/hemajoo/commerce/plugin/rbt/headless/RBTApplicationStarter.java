@@ -0,0 +1,397 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.headless;
+
+import com.hemajoo.commerce.plugin.rbt.model.PropertiesModel;
+import com.hemajoo.commerce.plugin.rbt.model.PropertiesModelException;
+import com.hemajoo.commerce.plugin.rbt.model.TranslationFile;
+import com.hemajoo.commerce.plugin.rbt.model.TranslationFileName;
+import com.hemajoo.commerce.plugin.rbt.service.RBTService;
+import com.hemajoo.commerce.plugin.rbt.util.HTMLString;
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.notification.Notification;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Headless application translating a resource bundle without opening the IDE window, typically from a continuous
+ * integration build:
+ * <pre>
+ * idea translate-bundle &lt;project-dir&gt; &lt;bundle-file&gt; --targets=fr,de,pt_BR [--source=en] [--provider=google]
+ * </pre>
+ * The bundle file is any properties file of the resource bundle, the source locale defaults to its locale and the
+ * translation provider to the one of the settings. The missing
+ * target properties files are created next to the source one. The run goes through the same {@link RBTService}
+ * pipeline as the tool window and its notifications are printed on the standard output.
+ * <br>
+ * All the resource bundles of the project are translated in a single run, from their default properties file to all
+ * their other properties files, with:
+ * <pre>
+ * idea translate-bundle &lt;project-dir&gt; --all [--provider=google]
+ * </pre>
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class RBTApplicationStarter implements ApplicationStarter
+{
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getInstance(RBTApplicationStarter.class);
+
+    /**
+     * Command name.
+     */
+    public static final String COMMAND_NAME = "translate-bundle";
+
+    /**
+     * Option giving the source locale.
+     */
+    private static final String OPTION_SOURCE = "--source=";
+
+    /**
+     * Option giving the comma separated target locales.
+     */
+    private static final String OPTION_TARGETS = "--targets=";
+
+    /**
+     * Option giving the translation provider identifier.
+     */
+    private static final String OPTION_PROVIDER = "--provider=";
+
+    /**
+     * Option translating all the resource bundles of the project.
+     */
+    private static final String OPTION_ALL = "--all";
+
+    /**
+     * Usage message.
+     */
+    private static final String USAGE = "Usage: " + COMMAND_NAME + " <project-dir> <bundle-file> --targets=<locale>[,<locale>...] [--source=<locale>] [--provider=<id>]"
+            + System.lineSeparator() + "       " + COMMAND_NAME + " <project-dir> --all [--provider=<id>]";
+
+    /**
+     * Exit code of a run which has not translated all the entries.
+     */
+    private static final int EXIT_FAILURE = 1;
+
+    /**
+     * Exit code of invalid arguments.
+     */
+    private static final int EXIT_USAGE = 2;
+
+    @Override
+    public String getCommandName()
+    {
+        return COMMAND_NAME;
+    }
+
+    @Override
+    public int getRequiredModality()
+    {
+        // The translation waits for the requests, it must not block the event dispatch thread.
+        return NOT_IN_EDT;
+    }
+
+    @Override
+    public void main(final @NotNull List<String> args)
+    {
+        List<String> parameters = new ArrayList<>();
+        String source = null;
+        String targets = null;
+        String provider = null;
+        boolean all = false;
+
+        for (String arg : args.subList(1, args.size()))
+        {
+            if (arg.startsWith(OPTION_SOURCE))
+            {
+                source = arg.substring(OPTION_SOURCE.length());
+            }
+            else if (arg.startsWith(OPTION_TARGETS))
+            {
+                targets = arg.substring(OPTION_TARGETS.length());
+            }
+            else if (arg.startsWith(OPTION_PROVIDER))
+            {
+                provider = arg.substring(OPTION_PROVIDER.length());
+            }
+            else if (arg.equals(OPTION_ALL))
+            {
+                all = true;
+            }
+            else
+            {
+                parameters.add(arg);
+            }
+        }
+
+        boolean valid = all
+                ? parameters.size() == 1 && targets == null && source == null
+                : parameters.size() == 2 && targets != null && !targets.isBlank();
+        if (!valid)
+        {
+            System.err.println(USAGE);
+            System.exit(EXIT_USAGE);
+            return;
+        }
+
+        int code;
+        try
+        {
+            code = all
+                    ? translateAll(Path.of(parameters.get(0)), provider)
+                    : translate(Path.of(parameters.get(0)), Path.of(parameters.get(1)), source, targets.split(","), provider);
+        }
+        catch (Exception e)
+        {
+            // The stack trace goes to the IDE log, the command line only gets the cause.
+            LOGGER.error("Headless translation failed", e);
+            System.err.println("Translation failed due to: " + e.getMessage());
+            code = EXIT_FAILURE;
+        }
+
+        System.exit(code);
+    }
+
+    /**
+     * Translates a resource bundle.
+     * @param projectPath Project directory.
+     * @param bundlePath Path of a properties file of the resource bundle.
+     * @param source Source locale ({@code null} for the locale of the bundle file).
+     * @param targets Target locales.
+     * @param provider Translation provider identifier ({@code null} for the one of the settings).
+     * @return Exit code.
+     * @throws PropertiesModelException Thrown in case the resource bundle cannot be loaded.
+     */
+    private int translate(final @NonNull Path projectPath, final @NonNull Path bundlePath, final String source, final @NonNull String[] targets, final String provider) throws PropertiesModelException
+    {
+        return run(projectPath, provider, (service, project) ->
+        {
+            AtomicReference<PropertiesModelException> failure = new AtomicReference<>();
+            ApplicationManager.getApplication().invokeAndWait(() ->
+            {
+                try
+                {
+                    select(service, project, bundlePath, source, targets);
+                }
+                catch (PropertiesModelException e)
+                {
+                    failure.set(e);
+                }
+            });
+            if (failure.get() != null)
+            {
+                throw failure.get();
+            }
+
+            return service.executeHeadless(new EmptyProgressIndicator());
+        });
+    }
+
+    /**
+     * Translates all the resource bundles of a project.
+     * @param projectPath Project directory.
+     * @param provider Translation provider identifier ({@code null} for the one of the settings).
+     * @return Exit code.
+     * @throws PropertiesModelException Thrown in case a resource bundle cannot be loaded.
+     */
+    private int translateAll(final @NonNull Path projectPath, final String provider) throws PropertiesModelException
+    {
+        return run(projectPath, provider, (service, project) -> service.executeAllHeadless(project, new EmptyProgressIndicator()));
+    }
+
+    /**
+     * Opens a project, executes a translation run on it and closes it.
+     * @param projectPath Project directory.
+     * @param provider Translation provider identifier ({@code null} for the one of the settings).
+     * @param translation Translation run, returning true if all the entries have been translated.
+     * @return Exit code.
+     * @throws PropertiesModelException Thrown in case a resource bundle cannot be loaded.
+     */
+    private int run(final @NonNull Path projectPath, final String provider, final @NonNull HeadlessTranslation translation) throws PropertiesModelException
+    {
+        AtomicReference<Project> reference = new AtomicReference<>();
+        ApplicationManager.getApplication().invokeAndWait(() -> reference.set(ProjectUtil.openOrImport(projectPath, null, false)));
+        Project project = reference.get();
+        if (project == null)
+        {
+            System.err.println("Cannot open project: " + projectPath);
+            return EXIT_FAILURE;
+        }
+
+        try
+        {
+            project.getMessageBus().connect().subscribe(Notifications.TOPIC, new Notifications()
+            {
+                @Override
+                public void notify(final @NotNull Notification notification)
+                {
+                    System.out.println(HTMLString.removeHtml(notification.getContent().replace("<br>", " ")));
+                }
+            });
+
+            // The bundle files are looked up in the index, wait for it rather than falling back to a directory scan.
+            DumbService.getInstance(project).waitForSmartMode();
+
+            RBTService service = project.getService(RBTService.class);
+            service.setProviderId(provider);
+
+            boolean completed = translation.execute(service, project);
+            if (service.getLastReport() != null)
+            {
+                for (Map.Entry<String, String> item : service.getLastReport().getItems().entrySet())
+                {
+                    System.out.println(item.getKey() + ": " + item.getValue());
+                }
+            }
+
+            return completed ? 0 : EXIT_FAILURE;
+        }
+        finally
+        {
+            ApplicationManager.getApplication().invokeAndWait(() -> ProjectManager.getInstance().closeAndDispose(project));
+        }
+    }
+
+    /**
+     * Loads the resource bundle in the service model and selects the source and target translation files, the missing
+     * target files are created.
+     * @param service Plugin service.
+     * @param project Project.
+     * @param bundlePath Path of a properties file of the resource bundle.
+     * @param source Source locale ({@code null} for the locale of the bundle file).
+     * @param targets Target locales.
+     * @throws PropertiesModelException Thrown in case the resource bundle cannot be loaded.
+     */
+    private void select(final @NonNull RBTService service, final @NonNull Project project, final @NonNull Path bundlePath, final String source, final @NonNull String[] targets) throws PropertiesModelException
+    {
+        VirtualFile file = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(bundlePath.toAbsolutePath());
+        PsiFile psiFile = file != null ? PsiManager.getInstance(project).findFile(file) : null;
+        if (psiFile == null)
+        {
+            throw new PropertiesModelException(String.format("Cannot find bundle file: '%s'", bundlePath));
+        }
+
+        TranslationFile bundle = new TranslationFile(psiFile);
+        service.setModel(project, new PropertiesModel(project, bundle));
+        Map<Locale, TranslationFile> translations = service.getModel().getTranslations();
+
+        TranslationFile sourceTranslation = source != null ? translations.get(parseLocale(source)) : bundle;
+        if (sourceTranslation == null)
+        {
+            throw new PropertiesModelException(String.format("Cannot find source translation file for locale: '%s'", source));
+        }
+
+        List<Locale> locales = new ArrayList<>();
+        boolean created = false;
+        for (String target : targets)
+        {
+            Locale locale = parseLocale(target.strip());
+            locales.add(locale);
+            if (!translations.containsKey(locale))
+            {
+                createFile(file.getParent(), bundle.getRootName() + "_" + locale + "." + bundle.getExtension());
+                created = true;
+            }
+        }
+
+        if (created)
+        {
+            service.setModel(project, new PropertiesModel(project, sourceTranslation));
+        }
+
+        service.getModel().sourceTranslationChanged(sourceTranslation.getLocale());
+        for (Locale locale : locales)
+        {
+            if (!service.getModel().getTargetTranslation().containsKey(locale))
+            {
+                throw new PropertiesModelException(String.format("Cannot find target translation file for locale: '%s'", locale));
+            }
+            service.getModel().selectTarget(locale);
+        }
+    }
+
+    /**
+     * Creates an empty properties file.
+     * @param directory Directory.
+     * @param name File name.
+     * @throws PropertiesModelException Thrown in case the file cannot be created.
+     */
+    private void createFile(final @NonNull VirtualFile directory, final @NonNull String name) throws PropertiesModelException
+    {
+        try
+        {
+            WriteAction.run(() -> directory.createChildData(this, name));
+        }
+        catch (IOException e)
+        {
+            throw new PropertiesModelException(String.format("Cannot create target translation file: '%s'", name), e);
+        }
+    }
+
+    /**
+     * Parses a locale given as a properties file name suffix (for example: {@code pt_BR}).
+     * @param value Locale suffix.
+     * @return {@link Locale}.
+     * @throws PropertiesModelException Thrown in case the value is not a valid locale.
+     */
+    private static Locale parseLocale(final @NonNull String value) throws PropertiesModelException
+    {
+        Locale locale = TranslationFileName.of("bundle_" + value + ".properties").getLocale();
+        if (locale == TranslationFileName.DEFAULT_LOCALE)
+        {
+            throw new PropertiesModelException(String.format("Invalid locale: '%s'", value));
+        }
+
+        return locale;
+    }
+
+    /**
+     * Translation run executed on an opened project.
+     */
+    @FunctionalInterface
+    private interface HeadlessTranslation
+    {
+        /**
+         * Executes the translation run.
+         * @param service Plugin service of the project.
+         * @param project Project.
+         * @return True if all the entries have been translated.
+         * @throws PropertiesModelException Thrown in case a resource bundle cannot be loaded.
+         */
+        boolean execute(final @NonNull RBTService service, final @NonNull Project project) throws PropertiesModelException;
+    }
+}
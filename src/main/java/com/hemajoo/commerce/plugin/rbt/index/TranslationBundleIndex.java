@@ -0,0 +1,118 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.index;
+
+import com.hemajoo.commerce.plugin.rbt.model.TranslationFileName;
+import com.intellij.lang.properties.PropertiesFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Represents a project wide index of the resource bundle properties files by resource bundle root name (the file
+ * name without locale and without extension), maintained incrementally by the platform on file system changes.
+ * <br>
+ * Only the file names are indexed, so the file contents are never read to update the index.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationBundleIndex extends ScalarIndexExtension<String>
+{
+    /**
+     * Index identifier.
+     */
+    public static final ID<String, Void> NAME = ID.create("com.hemajoo.commerce.plugin.rbt.index.TranslationBundleIndex");
+
+    /**
+     * Index version, to be incremented each time the indexer changes.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Returns the resource bundle properties files of the project having the given root name.
+     * <br>
+     * The index cannot be queried while the project is in dumb mode.
+     * @param project Project.
+     * @param rootName Resource bundle root name.
+     * @return Properties files.
+     */
+    public static Collection<VirtualFile> getFiles(final @NonNull Project project, final @NonNull String rootName)
+    {
+        return FileBasedIndex.getInstance().getContainingFiles(NAME, rootName, GlobalSearchScope.projectScope(project));
+    }
+
+    /**
+     * Returns the root names of the resource bundles of the project.
+     * <br>
+     * The index cannot be queried while the project is in dumb mode, the returned root names may include the ones of
+     * deleted files.
+     * @param project Project.
+     * @return Resource bundle root names.
+     */
+    public static Collection<String> getRootNames(final @NonNull Project project)
+    {
+        return FileBasedIndex.getInstance().getAllKeys(NAME, project);
+    }
+
+    @Override
+    public @NotNull ID<String, Void> getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, Void, FileContent> getIndexer()
+    {
+        return content ->
+        {
+            String rootName = TranslationFileName.of(content.getFileName()).getRootName();
+            return rootName != null ? Collections.singletonMap(rootName, null) : Collections.emptyMap();
+        };
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor()
+    {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion()
+    {
+        return VERSION;
+    }
+
+    @Override
+    public FileBasedIndex.@NotNull InputFilter getInputFilter()
+    {
+        return new DefaultFileTypeSpecificInputFilter(PropertiesFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent()
+    {
+        return false;
+    }
+}
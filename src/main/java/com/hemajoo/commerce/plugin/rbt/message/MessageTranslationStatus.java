@@ -0,0 +1,45 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.message;
+
+import com.hemajoo.commerce.plugin.rbt.model.TranslationStatus;
+import com.hemajoo.commerce.plugin.rbt.service.RBTService;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.messages.Topic;
+
+import java.util.Map;
+
+/**
+ * Message associated to the {@code I18n Resource Bundle Translator} plugin used to indicate the {@link RBTService}
+ * changed the status of target translation files.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public interface MessageTranslationStatus
+{
+    /**
+     * Message topic used to subscribe to translation status events.
+     */
+    Topic<MessageTranslationStatus> MESSAGE_TOPIC_TRANSLATION_STATUS = Topic.create("Translation status", MessageTranslationStatus.class);
+
+    /**
+     * Listener service used to notify subscribers of the {@link MessageTranslationStatus#MESSAGE_TOPIC_TRANSLATION_STATUS}
+     * that the status of target translation files changed, it is published on the event dispatch thread.
+     * @param statuses Translation statuses per target translation file, only the changed ones.
+     */
+    void statusChanged(Map<VirtualFile, TranslationStatus> statuses);
+}
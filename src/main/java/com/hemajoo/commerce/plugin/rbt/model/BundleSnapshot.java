@@ -0,0 +1,55 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.model;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * Represents an immutable snapshot of a {@link PropertiesModel} captured when a translation run starts: the source
+ * translation file and the target translation files selected at that time. The run only reads its snapshot, so the
+ * live model can be changed while the run is in progress.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class BundleSnapshot
+{
+    /**
+     * Source translation file.
+     */
+    @Getter
+    private final TranslationFile source;
+
+    /**
+     * Selected target translation files (immutable).
+     */
+    @Getter
+    private final List<TranslationFile> targets;
+
+    /**
+     * Creates a new snapshot.
+     * @param source Source translation file.
+     * @param targets Selected target translation files.
+     */
+    BundleSnapshot(final @NonNull TranslationFile source, final @NonNull List<TranslationFile> targets)
+    {
+        this.source = source;
+        this.targets = List.copyOf(targets);
+    }
+}
@@ -16,13 +16,15 @@
  */
 package com.hemajoo.commerce.plugin.rbt.model;
 
+import com.intellij.lang.properties.IProperty;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiDocumentManager;
 import lombok.Getter;
 import lombok.NonNull;
 import org.ressec.core.extension.i18n.translation.engine.google.GoogleTranslationRequest;
 
-import java.util.Objects;
+import java.util.*;
 
 /**
  * Represents a I18n Google translation request.
@@ -32,10 +34,10 @@ import java.util.Objects;
 public class I18nGoogleTranslationRequest extends GoogleTranslationRequest
 {
     /**
-     * Source translation file.
+     * Source snapshot shared by all the translation requests of a run.
      */
     @Getter
-    private final TranslationFile source;
+    private final TranslationSource source;
 
     /**
      * Target translation file.
@@ -43,6 +45,12 @@ public class I18nGoogleTranslationRequest extends GoogleTranslationRequest
     @Getter
     private final TranslationFile target;
 
+    /**
+     * Keys of the target translation file whose source value changed and which are translated again.
+     */
+    @Getter
+    private final Set<String> staleKeys;
+
     /**
      * Creates a new I18n Google translation request.
      * @param project Project.
@@ -50,18 +58,72 @@ public class I18nGoogleTranslationRequest extends GoogleTranslationRequest
      * @param target Target translation file.
      */
     public I18nGoogleTranslationRequest(final @NonNull Project project, final @NonNull TranslationFile source, final @NonNull TranslationFile target)
+    {
+        this(project, TranslationSource.of(project, source), target, Collections.emptySet());
+    }
+
+    /**
+     * Creates a new I18n Google translation request.
+     * @param project Project.
+     * @param source Source snapshot of the run.
+     * @param target Target translation file.
+     * @param staleKeys Keys of the target translation file to translate again.
+     */
+    public I18nGoogleTranslationRequest(final @NonNull Project project, final @NonNull TranslationSource source, final @NonNull TranslationFile target, final @NonNull Set<String> staleKeys)
     {
         this.source = source;
         this.target = target;
+        this.staleKeys = staleKeys;
 
         setSourceLocale(source.getLocale());
         setTargetLocale(target.getLocale());
 
-        setSourceProperties(
-                Objects.requireNonNull(
-                        PsiDocumentManager.getInstance(project).getDocument(source.getFile())).getText());
-        setTargetProperties(
-                Objects.requireNonNull(
-                        PsiDocumentManager.getInstance(project).getDocument(target.getFile())).getText());
+        // Only the target side is read for each request, the source text is the one of the shared snapshot.
+        setSourceProperties(source.getText());
+        String targetText = Objects.requireNonNull(
+                PsiDocumentManager.getInstance(project).getDocument(target.getFile())).getText();
+        setTargetProperties(staleKeys.isEmpty() ? targetText : removeStaleEntries(targetText));
+    }
+
+    /**
+     * Returns the source values per key the translations are made from.
+     * @return Source values per key.
+     */
+    public Map<String, String> getSourceValues()
+    {
+        return source.getValues();
+    }
+
+    /**
+     * Removes the stale entries from the target text so they are considered as missing and translated again.
+     * @param text Target text.
+     * @return Target text without the stale entries.
+     */
+    private String removeStaleEntries(final @NonNull String text)
+    {
+        List<TextRange> ranges = new ArrayList<>();
+
+        for (IProperty property : target.getProperties())
+        {
+            if (staleKeys.contains(property.getKey()))
+            {
+                ranges.add(property.getPsiElement().getTextRange());
+            }
+        }
+
+        ranges.sort(Comparator.comparingInt(TextRange::getStartOffset).reversed());
+
+        StringBuilder builder = new StringBuilder(text);
+        for (TextRange range : ranges)
+        {
+            int end = range.getEndOffset();
+            if (end < builder.length() && builder.charAt(end) == '\n')
+            {
+                end += 1;
+            }
+            builder.delete(range.getStartOffset(), end);
+        }
+
+        return builder.toString();
     }
 }
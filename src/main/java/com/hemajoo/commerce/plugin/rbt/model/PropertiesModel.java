@@ -16,19 +16,26 @@
  */
 package com.hemajoo.commerce.plugin.rbt.model;
 
+import com.hemajoo.commerce.plugin.rbt.index.TranslationBundleIndex;
 import com.hemajoo.commerce.plugin.rbt.service.RBTService;
-import com.hemajoo.commerce.plugin.rbt.util.HTMLString;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.Setter;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents the data model of the {@link RBTService}.
+ * <br>
+ * The model is changed on the event dispatch thread while translation runs may read it from background threads, its
+ * maps are concurrent and exposed as read-only views. A run works on a {@link BundleSnapshot} taken when it starts.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
@@ -43,40 +50,23 @@ public final class PropertiesModel
     /**
      * Translation files.
      */
-    @Getter
-    @Setter
-    private Map<Locale, TranslationFile> translations = new HashMap<>();
+    private final Map<Locale, TranslationFile> translations = new ConcurrentHashMap<>();
 
     /**
      * Source translation file.
      */
     @Getter
-    @Setter
-    private TranslationFile sourceTranslation;
+    private volatile TranslationFile sourceTranslation;
 
     /**
-     * Target translation files.
+     * Target translation files, keyed by locale as the locale identifies a translation file of the resource bundle.
      */
-    @Getter
-    @Setter
-    private Map<Locale, TranslationFile> targetTranslation = new HashMap<>();
+    private final Map<Locale, TranslationFile> targetTranslation = new ConcurrentHashMap<>();
 
     /**
      * Selected target translation files.
      */
-    @Getter
-    @Setter
-    private Map<Locale, TranslationFile> targetTranslationSelected = new HashMap<>();
-
-    /**
-     * Resource bundle properties files.
-     */
-    @Getter
-    private final Map<Locale, Properties> properties = new HashMap<>();
-
-    @Getter
-    @Setter
-    private int translatedEntries = 0;
+    private final Map<Locale, TranslationFile> targetTranslationSelected = new ConcurrentHashMap<>();
 
 //    @Getter
 //    @Setter
@@ -110,6 +100,46 @@ public final class PropertiesModel
 //        others.clear();
 //    }
 
+    /**
+     * Returns the translation files of the resource bundle.
+     * @return Read-only view of the translation files per locale.
+     */
+    public Map<Locale, TranslationFile> getTranslations()
+    {
+        return Collections.unmodifiableMap(translations);
+    }
+
+    /**
+     * Returns the target translation files.
+     * @return Read-only view of the target translation files per locale.
+     */
+    public Map<Locale, TranslationFile> getTargetTranslation()
+    {
+        return Collections.unmodifiableMap(targetTranslation);
+    }
+
+    /**
+     * Returns the selected target translation files.
+     * @return Read-only view of the selected target translation files per locale.
+     */
+    public Map<Locale, TranslationFile> getTargetTranslationSelected()
+    {
+        return Collections.unmodifiableMap(targetTranslationSelected);
+    }
+
+    /**
+     * Returns an immutable snapshot of the source translation file and of the selected target translation files,
+     * sorted by file name.
+     * @return {@link BundleSnapshot}.
+     */
+    public BundleSnapshot snapshot()
+    {
+        List<TranslationFile> targets = new ArrayList<>(targetTranslationSelected.values());
+        targets.sort(Comparator.comparing(target -> target.getFile().getName()));
+
+        return new BundleSnapshot(sourceTranslation, targets);
+    }
+
     /**
      * Refreshes all underlying files in the model.
      */
@@ -124,118 +154,243 @@ public final class PropertiesModel
 
     /**
      * Collects all associated resource bundle properties files.
+     * <br>
+     * The properties files are looked up in the {@link TranslationBundleIndex} by resource bundle root name, so the
+     * bundles spread across several resource roots (same package) are found too. While the index is not available
+     * (dumb mode), only the directory of the source translation file is scanned.
      */
     public void collect()
     {
-        TranslationFile target;
+        if (DumbService.isDumb(project))
+        {
+            collectFromDirectory();
+            return;
+        }
 
-        PsiDirectory directory = sourceTranslation.getFile().getParent();
-        for (PsiFile file : Objects.requireNonNull(directory).getFiles())
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        PsiManager manager = PsiManager.getInstance(project);
+        String location = getBundleLocation(fileIndex, sourceTranslation.getFile().getVirtualFile());
+        PsiFile psiFile;
+
+        for (VirtualFile file : TranslationBundleIndex.getFiles(project, sourceTranslation.getRootName()))
         {
-            target = new TranslationFile(file);
-            if (target.isRelated(sourceTranslation))
+            if (location.equals(getBundleLocation(fileIndex, file)))
             {
-                translations.put(target.getLocale(), target);
+                psiFile = manager.findFile(file);
+                if (psiFile != null)
+                {
+                    addRelated(new TranslationFile(psiFile));
+                }
             }
         }
     }
 
     /**
-     * Returns the plugin service.
-     * @return {@link RBTService}.
+     * Collects all the resource bundles of the project, each one as a model whose source translation is the default
+     * properties file of the bundle (without locale) and whose target translations are all selected. The bundles
+     * without default properties file are skipped.
+     * <br>
+     * The properties files are looked up in the {@link TranslationBundleIndex}, it must not be called in dumb mode.
+     * @param project Project.
+     * @return Properties models, one per resource bundle.
      */
-    public RBTService getService()
+    public static List<PropertiesModel> collectAll(final @NonNull Project project)
     {
-        return project.getService(RBTService.class);
+        List<PropertiesModel> models = new ArrayList<>();
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        PsiManager manager = PsiManager.getInstance(project);
+        Map<String, List<TranslationFile>> bundles;
+        PsiFile psiFile;
+
+        for (String rootName : TranslationBundleIndex.getRootNames(project))
+        {
+            // A root name is shared by the bundles of different packages.
+            bundles = new LinkedHashMap<>();
+            for (VirtualFile file : TranslationBundleIndex.getFiles(project, rootName))
+            {
+                psiFile = manager.findFile(file);
+                if (psiFile != null)
+                {
+                    bundles.computeIfAbsent(getBundleLocation(fileIndex, file), location -> new ArrayList<>()).add(new TranslationFile(psiFile));
+                }
+            }
+
+            for (List<TranslationFile> files : bundles.values())
+            {
+                PropertiesModel model = of(project, files);
+                if (model != null)
+                {
+                    models.add(model);
+                }
+            }
+        }
+
+        return models;
     }
 
     /**
-     * Sets the new source translation file and update the target translation file list.
-     * @param name New properties translation source file.
+     * Creates the model of a resource bundle with all its target translations selected.
+     * @param project Project.
+     * @param files Properties files of the resource bundle.
+     * @return Properties model or {@code null} if the bundle has no valid default properties file.
      */
-    public final void sourceTranslationChanged(final @NonNull String name) throws PropertiesModelException
+    private static PropertiesModel of(final @NonNull Project project, final @NonNull List<TranslationFile> files)
     {
-        sourceTranslation = getTargetTranslationByName(name);
-        targetTranslationSelected.clear();
-
-        for (TranslationFile target : translations.values())
+        for (TranslationFile source : files)
         {
-            if (!sourceTranslation.getFile().getName().equals(target.getFile().getName()))
+            if (source.getLocale() == TranslationFileName.DEFAULT_LOCALE && source.isValid())
             {
-                targetTranslation.put(target.getLocale(), target);
+                try
+                {
+                    PropertiesModel model = new PropertiesModel(project, source);
+                    for (TranslationFile file : files)
+                    {
+                        model.addRelated(file);
+                    }
+                    model.sourceTranslationChanged(source.getLocale());
+                    model.selectAllTargets();
+                    return model;
+                }
+                catch (PropertiesModelException e)
+                {
+                    return null;
+                }
             }
         }
+
+        return null;
+    }
+
+    /**
+     * Collects the associated resource bundle properties files of the directory of the source translation file.
+     */
+    private void collectFromDirectory()
+    {
+        PsiDirectory directory = sourceTranslation.getFile().getParent();
+        for (PsiFile file : Objects.requireNonNull(directory).getFiles())
+        {
+            addRelated(new TranslationFile(file));
+        }
     }
 
     /**
-     * Returns the target translation file given its name.
-     * @param name Target translation file name.
-     * @return Target {@link TranslationFile}.
-     * @throws PropertiesModelException Thrown in case an error occurred while trying to retrieve the target
-     * translation file.
+     * Adds a translation file to the model if it belongs to the same resource bundle as the source translation file.
+     * <br>
+     * When several resource roots contain a file for the same locale, the one in the directory of the source
+     * translation file wins.
+     * @param target Translation file.
      */
-    private TranslationFile getTargetTranslationByName(final @NonNull String name) throws PropertiesModelException
+    private void addRelated(final @NonNull TranslationFile target)
     {
-        String[] parts = name.split(" \\(");
-        String value = HTMLString.removeHtml(parts[0]);
+        if (!target.isRelated(sourceTranslation))
+        {
+            return;
+        }
 
-        for (TranslationFile file : translations.values())
+        PsiDirectory directory = sourceTranslation.getFile().getParent();
+        TranslationFile existing = translations.get(target.getLocale());
+        if (existing == null || (existing.getFile().getParent() != directory && target.getFile().getParent() == directory))
         {
-            if (value.equals(file.getFile().getName()))
-            {
-                return file;
-            }
+            translations.put(target.getLocale(), target);
         }
+    }
 
-        throw new PropertiesModelException(String.format("Cannot find target translation file for name: '%s'", name));
+    /**
+     * Returns the location of a resource bundle file: its package when it belongs to a source or resource root,
+     * its directory otherwise.
+     * @param fileIndex Project file index.
+     * @param file Resource bundle file.
+     * @return Location.
+     */
+    private static String getBundleLocation(final @NonNull ProjectFileIndex fileIndex, final @NonNull VirtualFile file)
+    {
+        VirtualFile directory = file.getParent();
+        String packageName = directory != null ? fileIndex.getPackageNameByDirectory(directory) : null;
+
+        return packageName != null ? "package:" + packageName : "directory:" + (directory != null ? directory.getPath() : "");
     }
 
     /**
-     * Unselects a target translation file given its name.
-     * @param name Target translation file to unselect.
+     * Returns the plugin service.
+     * @return {@link RBTService}.
      */
-    public final void unselectTarget(final @NonNull String name)
+    public RBTService getService()
     {
-        for (Map.Entry<Locale, TranslationFile> entry : targetTranslationSelected.entrySet())
-        {
-            if (entry.getValue().getFile().getName().equals(name))
-            {
-                targetTranslationSelected.remove(entry.getKey());
-            }
-        }
+        return project.getService(RBTService.class);
     }
 
     /**
-     * Selects a target translation file given its name.
-     * @param name Target translation file to select.
+     * Sets the new source translation file and update the target translation file list, the selection of the target
+     * translation files is cleared.
+     * @param locale Locale of the new source translation file.
+     * @throws PropertiesModelException Thrown in case the resource bundle has no translation file for this locale.
      */
-    public final void selectTarget(final @NonNull String name)
+    public final void sourceTranslationChanged(final @NonNull Locale locale) throws PropertiesModelException
     {
-        for (Map.Entry<Locale, TranslationFile> entry : targetTranslation.entrySet())
+        TranslationFile source = translations.get(locale);
+        if (source == null)
         {
-            if (entry.getValue().getFile().getName().equals(name))
+            throw new PropertiesModelException(String.format("Cannot find translation file for locale: '%s'", locale));
+        }
+
+        sourceTranslation = source;
+        targetTranslation.clear();
+        targetTranslationSelected.clear();
+
+        for (Map.Entry<Locale, TranslationFile> entry : translations.entrySet())
+        {
+            if (!entry.getKey().equals(locale))
             {
-                targetTranslationSelected.put(entry.getKey(), entry.getValue());
+                targetTranslation.put(entry.getKey(), entry.getValue());
             }
         }
     }
 
     /**
-     * Returns the total number of property entries to translate.
-     * @return Number of entries to translate.
+     * Unselects a target translation file.
+     * @param locale Locale of the target translation file to unselect.
      */
-    public int getCountEntriesToTranslate()
+    public final void unselectTarget(final @NonNull Locale locale)
     {
-        int count = 0;
+        targetTranslationSelected.remove(locale);
+    }
 
-        for (Map.Entry<Locale, Properties> entry : properties.entrySet())
+    /**
+     * Selects a target translation file.
+     * @param locale Locale of the target translation file to select.
+     */
+    public final void selectTarget(final @NonNull Locale locale)
+    {
+        TranslationFile target = targetTranslation.get(locale);
+        if (target != null)
         {
-            if (sourceTranslation.getLocale() != entry.getKey())
-            {
-                count += entry.getValue().size();
-            }
+            targetTranslationSelected.put(locale, target);
         }
+    }
+
+    /**
+     * Selects all the target translation files.
+     */
+    public final void selectAllTargets()
+    {
+        targetTranslationSelected.putAll(targetTranslation);
+    }
 
-        return count;
+    /**
+     * Unselects all the target translation files.
+     */
+    public final void unselectAllTargets()
+    {
+        targetTranslationSelected.clear();
+    }
+
+    /**
+     * Returns if a target translation file is selected.
+     * @param locale Locale of the target translation file.
+     * @return True if the target translation file is selected, false otherwise.
+     */
+    public final boolean isTargetSelected(final @NonNull Locale locale)
+    {
+        return targetTranslationSelected.containsKey(locale);
     }
 }
@@ -24,10 +24,7 @@ import com.intellij.psi.PsiFile;
 import lombok.Getter;
 import lombok.NonNull;
 
-import java.util.List;
-import java.util.Locale;
-import java.util.MissingResourceException;
-import java.util.Objects;
+import java.util.*;
 
 /**
  * Represents a translation file which is a {@link PsiFile} in {@code IntelliJ IDEA} and its underlying property file.
@@ -48,28 +45,19 @@ public final class TranslationFile
     private final PsiFile file;
 
     /**
-     * File inner name (without locale and without extension).
+     * Parsed file name.
      */
-    @Getter
-    private String rootName;
+    private final TranslationFileName name;
 
     /**
-     * File base name (without extension).
+     * Locale description, built once as the file name is parsed once.
      */
-    @Getter
-    private String baseName;
+    private String localeLabel;
 
     /**
-     * File extension.
+     * Label in HTML format, built once as the file name is parsed once.
      */
-    @Getter
-    private String extension;
-
-    /**
-     * Locale of the properties file.
-     */
-    @Getter
-    private final Locale locale;
+    private String uiLabel;
 
     /**
      * Creates a new translation file.
@@ -78,57 +66,51 @@ public final class TranslationFile
     public TranslationFile(final @NonNull PsiFile file)
     {
         this.file = file;
-        this.locale = parse(file);
+        this.name = TranslationFileName.of(file.getName());
     }
 
     /**
-     * Refreshes the underlying {@link PsiFile}.
+     * Returns the file inner name (without locale and without extension).
+     * @return Root name.
      */
-    public final void refresh()
+    public final String getRootName()
     {
-        file.getVirtualFile().refresh(false, false);
+        return name.getRootName();
     }
 
     /**
-     * Returns the {@link Locale} of the underlying resource bundle property file.
-     * @param file {@link PsiFile} file.
-     * @return {@link Locale} or {@link Locale#ENGLISH} (which is the default) if no locale was specified.
+     * Returns the file base name (without extension).
+     * @return Base name.
      */
-    private Locale parse(final @NonNull PsiFile file)
+    public final String getBaseName()
     {
-        Locale defaultLocale = new Locale("en", "US", "Default");
-        Locale propertyLocale;
-        String localePart;
+        return name.getBaseName();
+    }
 
-        String[] parts = file.getName().split("\\.");
-        if (parts.length > 1)
-        {
-            baseName = parts[0];
-            extension = parts[1];
-            rootName = baseName;
+    /**
+     * Returns the file extension.
+     * @return Extension.
+     */
+    public final String getExtension()
+    {
+        return name.getExtension();
+    }
 
-            int index = parts[0].lastIndexOf("_");
-            if (index != -1)
-            {
-                localePart = parts[0].substring(index + 1);
-
-                try
-                {
-                    propertyLocale = new Locale(localePart);
-                    propertyLocale.getISO3Language();
-                    String[] otherParts = rootName.split("_" + localePart);
-                    rootName = otherParts[0];
-
-                    return propertyLocale;
-                }
-                catch (MissingResourceException mre)
-                {
-                    return defaultLocale;
-                }
-            }
-        }
+    /**
+     * Returns the locale of the properties file.
+     * @return {@link Locale}.
+     */
+    public final Locale getLocale()
+    {
+        return name.getLocale();
+    }
 
-        return defaultLocale;
+    /**
+     * Refreshes the underlying {@link PsiFile}.
+     */
+    public final void refresh()
+    {
+        file.getVirtualFile().refresh(false, false);
     }
 
     /**
@@ -147,7 +129,7 @@ public final class TranslationFile
      */
     public final boolean isRelated(final @NonNull TranslationFile source)
     {
-        return isValid() && rootName.equals(source.getRootName()) && !source.getFile().getName().equals(file.getName());
+        return isValid() && getRootName().equals(source.getRootName()) && !source.getFile().getName().equals(file.getName());
     }
 
     /**
@@ -160,25 +142,63 @@ public final class TranslationFile
     }
 
     /**
-     * Returns the translation file filename in HTML format with colors.
-     * @return String label typically to be used in a JLabel as colored text.
+     * Returns the values of the resource bundle properties file per key, in the order of the file.
+     * @return Values per key.
      */
-    public final String getUILabel()
+    public final Map<String, String> getValues()
     {
-        HTMLString html = new HTMLString();
+        Map<String, String> values = new LinkedHashMap<>();
+
+        for (IProperty property : getProperties())
+        {
+            if (property.getKey() != null && property.getValue() != null)
+            {
+                values.put(property.getKey(), property.getValue());
+            }
+        }
 
-        html.append(file.getName() + " (");
-        html.append(HTMLString.Color.GREY_BLUE_400, "language=" + locale.getDisplayLanguage());
-        if (!locale.getCountry().isBlank())
+        return values;
+    }
+
+    /**
+     * Returns the description of the locale of the translation file, for example: {@code language=French, country=Canada}.
+     * @return Locale description.
+     */
+    public final String getLocaleLabel()
+    {
+        if (localeLabel == null)
         {
-            html.append(HTMLString.Color.GREY_BLUE_400, ", country=" + locale.getDisplayCountry());
+            Locale locale = getLocale();
+            StringBuilder label = new StringBuilder("language=").append(locale.getDisplayLanguage());
+            if (!locale.getCountry().isBlank())
+            {
+                label.append(", country=").append(locale.getDisplayCountry());
+            }
+            if (!locale.getVariant().isBlank())
+            {
+                label.append(", variant=").append(locale.getDisplayVariant());
+            }
+            localeLabel = label.toString();
         }
-        if (!locale.getVariant().isBlank())
+
+        return localeLabel;
+    }
+
+    /**
+     * Returns the translation file filename in HTML format with colors.
+     * @return String label typically to be used in a JLabel as colored text.
+     */
+    public final String getUILabel()
+    {
+        if (uiLabel == null)
         {
-            html.append(HTMLString.Color.GREY_BLUE_400, ", variant=" + locale.getDisplayVariant());
+            HTMLString html = new HTMLString();
+            html.append(file.getName() + " (");
+            html.append(HTMLString.Color.GREY_BLUE_400, getLocaleLabel());
+            html.append(")");
+            uiLabel = html.toString();
         }
-        html.append(")");
 
-        return html.toString();
+        return uiLabel;
     }
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.model;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Represents the parsed name of a resource bundle properties file such as {@code messages_fr.properties} or
+ * {@code messages_pt_BR.properties}.
+ * <br>
+ * The locale suffixes ({@code language}, {@code language_COUNTRY} or {@code language_COUNTRY_variant}) are validated
+ * against the ISO codes known by the JVM. Only the suffixes shaped like a locale (two or three letters language,
+ * optionally followed by a two letters or three digits country and a variant) are looked up and their result
+ * (including the invalid ones) is cached, so parsing file names never throws, never creates a new {@link Locale} for
+ * an already seen suffix and the cache does not grow with the other underscore suffixes of the project.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationFileName
+{
+    /**
+     * Locale of the properties files without locale suffix.
+     */
+    public static final Locale DEFAULT_LOCALE = new Locale("en", "US", "Default");
+
+    /**
+     * Maximum number of parts of a locale suffix (language, country and variant).
+     */
+    private static final int MAX_LOCALE_PARTS = 3;
+
+    /**
+     * ISO 639 language codes (two and three letters).
+     */
+    private static final Set<String> LANGUAGES = new HashSet<>();
+
+    /**
+     * ISO 3166 country codes.
+     */
+    private static final Set<String> COUNTRIES = Set.of(Locale.getISOCountries());
+
+    /**
+     * Locales by suffix shaped like a locale, an empty value for the suffixes which are not a locale.
+     */
+    private static final ConcurrentMap<String, Optional<Locale>> LOCALES = new ConcurrentHashMap<>();
+
+    static
+    {
+        for (String language : Locale.getISOLanguages())
+        {
+            LANGUAGES.add(language);
+            LANGUAGES.add(new Locale(language).getISO3Language());
+        }
+    }
+
+    /**
+     * File inner name (without locale and without extension).
+     */
+    @Getter
+    private final String rootName;
+
+    /**
+     * File base name (without extension).
+     */
+    @Getter
+    private final String baseName;
+
+    /**
+     * File extension.
+     */
+    @Getter
+    private final String extension;
+
+    /**
+     * Locale of the properties file.
+     */
+    @Getter
+    private final Locale locale;
+
+    /**
+     * Creates a new translation file name.
+     * @param rootName File inner name.
+     * @param baseName File base name.
+     * @param extension File extension.
+     * @param locale Locale of the properties file.
+     */
+    private TranslationFileName(final String rootName, final String baseName, final String extension, final @NonNull Locale locale)
+    {
+        this.rootName = rootName;
+        this.baseName = baseName;
+        this.extension = extension;
+        this.locale = locale;
+    }
+
+    /**
+     * Parses a resource bundle properties file name.
+     * @param name File name.
+     * @return {@link TranslationFileName}, its locale is {@link #DEFAULT_LOCALE} if no locale was specified.
+     */
+    public static TranslationFileName of(final @NonNull String name)
+    {
+        int dot = name.indexOf('.');
+        if (dot == -1)
+        {
+            return new TranslationFileName(null, null, null, DEFAULT_LOCALE);
+        }
+
+        String baseName = name.substring(0, dot);
+        int next = name.indexOf('.', dot + 1);
+        String extension = name.substring(dot + 1, next == -1 ? name.length() : next);
+
+        // Try the longest suffix first: language_COUNTRY_variant, then language_COUNTRY, then language.
+        int[] separators = lastSeparators(baseName);
+        for (int separator : separators)
+        {
+            if (separator > 0)
+            {
+                String suffix = baseName.substring(separator + 1);
+                Optional<Locale> locale = isLocaleShaped(suffix)
+                        ? LOCALES.computeIfAbsent(suffix, TranslationFileName::toLocale)
+                        : Optional.empty();
+                if (locale.isPresent())
+                {
+                    return new TranslationFileName(baseName.substring(0, separator), baseName, extension, locale.get());
+                }
+            }
+        }
+
+        return new TranslationFileName(baseName, baseName, extension, DEFAULT_LOCALE);
+    }
+
+    /**
+     * Returns the positions of the last separators of a base name, the farthest one first.
+     * @param baseName File base name.
+     * @return Positions of the separators, {@code -1} for the missing ones.
+     */
+    private static int[] lastSeparators(final @NonNull String baseName)
+    {
+        int[] separators = new int[MAX_LOCALE_PARTS];
+        int index = baseName.length();
+
+        for (int i = MAX_LOCALE_PARTS - 1; i >= 0; i--)
+        {
+            index = index > 0 ? baseName.lastIndexOf('_', index - 1) : -1;
+            separators[i] = index;
+        }
+
+        return separators;
+    }
+
+    /**
+     * Returns if a file name suffix is shaped like a locale: a language of two or three letters, optionally followed by
+     * a country of two letters or three digits and a variant.
+     * @param suffix Suffix.
+     * @return True if the suffix is shaped like a locale, false otherwise.
+     */
+    private static boolean isLocaleShaped(final @NonNull String suffix)
+    {
+        String[] parts = suffix.split("_", -1);
+
+        if (parts.length > MAX_LOCALE_PARTS || !isLetters(parts[0], 2, 3))
+        {
+            return false;
+        }
+
+        if (parts.length > 1 && !isLetters(parts[1], 2, 2) && !isNumericRegion(parts[1]))
+        {
+            return false;
+        }
+
+        return parts.length < MAX_LOCALE_PARTS || isVariant(parts[2]);
+    }
+
+    /**
+     * Returns if a text is made of ASCII letters only with a length in the given range.
+     * @param text Text.
+     * @param min Minimum length.
+     * @param max Maximum length.
+     * @return True if the text is made of letters with a valid length, false otherwise.
+     */
+    private static boolean isLetters(final @NonNull String text, final int min, final int max)
+    {
+        return text.length() >= min && text.length() <= max && text.chars().allMatch(c -> (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'));
+    }
+
+    /**
+     * Converts a file name suffix to a locale.
+     * @param suffix Suffix such as {@code fr}, {@code pt_BR} or {@code es_ES_Traditional}.
+     * @return Locale or an empty value if the suffix is not a valid locale.
+     */
+    private static Optional<Locale> toLocale(final @NonNull String suffix)
+    {
+        String[] parts = suffix.split("_", -1);
+
+        String language = parts[0].toLowerCase(Locale.ROOT);
+        if (!LANGUAGES.contains(language))
+        {
+            return Optional.empty();
+        }
+
+        if (parts.length == 1)
+        {
+            return Optional.of(new Locale(language));
+        }
+
+        String country = parts[1].toUpperCase(Locale.ROOT);
+        if (!COUNTRIES.contains(country) && !isNumericRegion(country))
+        {
+            return Optional.empty();
+        }
+
+        if (parts.length == 2)
+        {
+            return Optional.of(new Locale(language, country));
+        }
+
+        return isVariant(parts[2]) ? Optional.of(new Locale(language, country, parts[2])) : Optional.empty();
+    }
+
+    /**
+     * Returns if a region is a numeric UN M.49 area code.
+     * @param region Region.
+     * @return True if the region is a numeric area code, false otherwise.
+     */
+    private static boolean isNumericRegion(final @NonNull String region)
+    {
+        return region.length() == 3 && region.chars().allMatch(Character::isDigit);
+    }
+
+    /**
+     * Returns if a text is a valid locale variant.
+     * @param variant Variant.
+     * @return True if the variant is made of letters and digits only, false otherwise.
+     */
+    private static boolean isVariant(final @NonNull String variant)
+    {
+        return !variant.isEmpty() && variant.chars().allMatch(Character::isLetterOrDigit);
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.model;
+
+import com.hemajoo.commerce.plugin.rbt.util.RBTStorage;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Represents the fingerprints (hash of the source value) of the translated entries of the target translation files.
+ * <br>
+ * A fingerprint is recorded for each translated key of a target file. When the source value of a key changes, its
+ * fingerprint no longer matches and the target entry is reported as stale.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationFingerprints
+{
+    /**
+     * Storage format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * FNV-1a 64 bits offset basis.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * FNV-1a 64 bits prime.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Storage file.
+     */
+    @Getter
+    private final Path file;
+
+    /**
+     * Fingerprints of the keys per target file path.
+     */
+    private Map<String, Map<String, Long>> fingerprints;
+
+    /**
+     * Have the fingerprints been modified since they have been loaded or saved?
+     */
+    private boolean modified = false;
+
+    /**
+     * Creates new translation fingerprints.
+     * @param file Storage file.
+     */
+    public TranslationFingerprints(final @NonNull Path file)
+    {
+        this.file = file;
+    }
+
+    /**
+     * Computes the fingerprint of a source value.
+     * @param value Source value.
+     * @return Fingerprint.
+     */
+    public static long hash(final @NonNull String value)
+    {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8))
+        {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns the keys of a target file whose source value changed since they have been translated. The fingerprints
+     * are not modified.
+     * @param target Target file path.
+     * @param sourceValues Source values per key.
+     * @param targetKeys Keys present in the target file.
+     * @return Stale keys.
+     */
+    public synchronized Set<String> getStaleKeys(final @NonNull String target, final @NonNull Map<String, String> sourceValues, final @NonNull Set<String> targetKeys)
+    {
+        Set<String> stale = new TreeSet<>();
+        Map<String, Long> keys = getFingerprints().getOrDefault(target, Collections.emptyMap());
+        Long recorded;
+
+        for (String key : targetKeys)
+        {
+            String value = sourceValues.get(key);
+            recorded = keys.get(key);
+            if (value != null && recorded != null && recorded != hash(value))
+            {
+                stale.add(key);
+            }
+        }
+
+        return stale;
+    }
+
+    /**
+     * Returns the keys of a target file having no fingerprint yet (translated outside of the plugin) with their
+     * current source value, to be recorded as baseline. The fingerprints are not modified.
+     * @param target Target file path.
+     * @param sourceValues Source values per key.
+     * @param targetKeys Keys present in the target file.
+     * @return Source values per key without fingerprint.
+     */
+    public synchronized Map<String, String> getBaselines(final @NonNull String target, final @NonNull Map<String, String> sourceValues, final @NonNull Set<String> targetKeys)
+    {
+        Map<String, String> baselines = new HashMap<>();
+        Map<String, Long> keys = getFingerprints().getOrDefault(target, Collections.emptyMap());
+
+        for (String key : targetKeys)
+        {
+            String value = sourceValues.get(key);
+            if (value != null && !keys.containsKey(key))
+            {
+                baselines.put(key, value);
+            }
+        }
+
+        return baselines;
+    }
+
+    /**
+     * Records the fingerprint of a translated key of a target file.
+     * @param target Target file path.
+     * @param key Translated key.
+     * @param sourceValue Source value the translation has been made from.
+     */
+    public synchronized void record(final @NonNull String target, final @NonNull String key, final @NonNull String sourceValue)
+    {
+        Long previous = getFingerprints().computeIfAbsent(target, path -> new HashMap<>()).put(key, hash(sourceValue));
+        if (previous == null || previous != hash(sourceValue))
+        {
+            modified = true;
+        }
+    }
+
+    /**
+     * Records the fingerprints of several keys of a target file.
+     * @param target Target file path.
+     * @param sourceValues Source values per key.
+     */
+    public synchronized void record(final @NonNull String target, final @NonNull Map<String, String> sourceValues)
+    {
+        for (Map.Entry<String, String> entry : sourceValues.entrySet())
+        {
+            record(target, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Saves the fingerprints to their storage file if they have been modified.
+     * @throws IOException Thrown in case an error occurred while saving the fingerprints.
+     */
+    public synchronized void save() throws IOException
+    {
+        if (fingerprints == null || !modified)
+        {
+            return;
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary)))))
+        {
+            output.writeInt(VERSION);
+            output.writeInt(fingerprints.size());
+            for (Map.Entry<String, Map<String, Long>> target : fingerprints.entrySet())
+            {
+                RBTStorage.writeString(output, target.getKey());
+                output.writeInt(target.getValue().size());
+                for (Map.Entry<String, Long> key : target.getValue().entrySet())
+                {
+                    RBTStorage.writeString(output, key.getKey());
+                    output.writeLong(key.getValue());
+                }
+            }
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        modified = false;
+    }
+
+    /**
+     * Returns the fingerprints, loading them from the storage file on first access.
+     * @return Fingerprints per target file path.
+     */
+    private Map<String, Map<String, Long>> getFingerprints()
+    {
+        if (fingerprints == null)
+        {
+            fingerprints = new HashMap<>();
+            load();
+        }
+
+        return fingerprints;
+    }
+
+    /**
+     * Loads the fingerprints from the storage file. An unreadable storage file is ignored and will be overwritten.
+     */
+    private void load()
+    {
+        if (!Files.isRegularFile(file))
+        {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file)))))
+        {
+            if (input.readInt() != VERSION)
+            {
+                return;
+            }
+
+            int targets = input.readInt();
+            for (int i = 0; i < targets; i++)
+            {
+                String target = RBTStorage.readString(input);
+                int count = input.readInt();
+                Map<String, Long> keys = new HashMap<>();
+                for (int j = 0; j < count; j++)
+                {
+                    keys.put(RBTStorage.readString(input), input.readLong());
+                }
+                fingerprints.put(target, keys);
+            }
+        }
+        catch (IOException e)
+        {
+            fingerprints.clear();
+            modified = true;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.model;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiDocumentManager;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Represents an immutable snapshot of the source translation file of a run, read once and shared by the translation
+ * requests of all the target files.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationSource
+{
+    /**
+     * Source translation file.
+     */
+    @Getter
+    private final TranslationFile file;
+
+    /**
+     * Source locale.
+     */
+    @Getter
+    private final Locale locale;
+
+    /**
+     * Source document text.
+     */
+    @Getter
+    private final String text;
+
+    /**
+     * Source values per key.
+     */
+    @Getter
+    private final Map<String, String> values;
+
+    /**
+     * Creates a new translation source snapshot.
+     * @param file Source translation file.
+     * @param text Source document text.
+     * @param values Source values per key.
+     */
+    private TranslationSource(final @NonNull TranslationFile file, final @NonNull String text, final @NonNull Map<String, String> values)
+    {
+        this.file = file;
+        this.locale = file.getLocale();
+        this.text = text;
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Takes a snapshot of a source translation file, its document must have been committed.
+     * @param project Project.
+     * @param file Source translation file.
+     * @return {@link TranslationSource}.
+     */
+    public static TranslationSource of(final @NonNull Project project, final @NonNull TranslationFile file)
+    {
+        String text = Objects.requireNonNull(PsiDocumentManager.getInstance(project).getDocument(file.getFile())).getText();
+        return new TranslationSource(file, text, file.getValues());
+    }
+}
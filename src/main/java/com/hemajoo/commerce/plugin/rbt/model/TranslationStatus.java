@@ -0,0 +1,68 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.model;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Represents the status of a target translation file in the last translation run.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public enum TranslationStatus
+{
+    /**
+     * All the entries of the target translation file are already translated.
+     */
+    UP_TO_DATE("Up to date"),
+
+    /**
+     * Target translation file waiting to be translated by the run in progress.
+     */
+    QUEUED("Queued"),
+
+    /**
+     * Target translation file translated.
+     */
+    TRANSLATED("Translated"),
+
+    /**
+     * Translation of the target translation file aborted.
+     */
+    FAILED("Failed"),
+
+    /**
+     * Translation of the target translation file cancelled, the translated entries are kept.
+     */
+    CANCELLED("Cancelled");
+
+    /**
+     * Status label.
+     */
+    @Getter
+    private final String label;
+
+    /**
+     * Creates a new translation status.
+     * @param label Status label.
+     */
+    TranslationStatus(final @NonNull String label)
+    {
+        this.label = label;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.provider;
+
+import com.hemajoo.commerce.plugin.rbt.service.RBTSettings;
+import com.hemajoo.commerce.plugin.rbt.translation.GlossaryTranslatorProcessor;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationGlossary;
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcessor;
+import org.ressec.core.extension.i18n.translation.engine.TranslationException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Represents a provider translating from the glossary file given by the {@link RBTSettings}, the texts missing from the
+ * glossary are left untranslated. No request is sent so it is neither batched nor rate limited.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class GlossaryTranslationProvider implements ITranslationProvider
+{
+    /**
+     * Provider identifier.
+     */
+    public static final String ID = "glossary";
+
+    @Override
+    public String getId()
+    {
+        return ID;
+    }
+
+    @Override
+    public String getName()
+    {
+        return "Glossary";
+    }
+
+    @Override
+    public int getMaxBatchEntries()
+    {
+        return 1;
+    }
+
+    @Override
+    public int getMaxBatchLength()
+    {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getMaxConcurrency()
+    {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public double getRequestsPerSecond()
+    {
+        return Double.MAX_VALUE;
+    }
+
+    @Override
+    public int getRequestsBurst()
+    {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public ITranslationProcessor createProcessor(final @NonNull TranslationProviderContext context) throws TranslationException
+    {
+        String path = RBTSettings.getInstance().getGlossaryPath();
+        if (path == null || path.isBlank())
+        {
+            throw new TranslationException("No glossary file configured!");
+        }
+
+        try
+        {
+            return new GlossaryTranslatorProcessor(TranslationGlossary.load(Path.of(path)));
+        }
+        catch (IOException e)
+        {
+            throw new TranslationException(String.format("Cannot read glossary file: '%s' due to: %s", path, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.provider;
+
+import com.hemajoo.commerce.plugin.rbt.service.RBTSettings;
+import com.hemajoo.commerce.plugin.rbt.translation.GoogleTranslatorProcessor;
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcessor;
+
+/**
+ * Represents the {@code Google Translate} provider, its endpoint and limits are given by the {@link RBTSettings}
+ * except its maximum concurrency, which caps the number of in-flight requests of the settings.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class GoogleTranslationProvider implements ITranslationProvider
+{
+    /**
+     * Provider identifier.
+     */
+    public static final String ID = "google";
+
+    /**
+     * Maximum number of requests sent concurrently to the {@code Google Translate} endpoint, beyond which it throttles
+     * the requests whatever the rate.
+     */
+    private static final int MAX_CONCURRENCY = 16;
+
+    @Override
+    public String getId()
+    {
+        return ID;
+    }
+
+    @Override
+    public String getName()
+    {
+        return "Google Translate";
+    }
+
+    @Override
+    public int getMaxBatchEntries()
+    {
+        return RBTSettings.getInstance().getBatchMaxEntries();
+    }
+
+    @Override
+    public int getMaxBatchLength()
+    {
+        return RBTSettings.getInstance().getBatchMaxLength();
+    }
+
+    @Override
+    public int getMaxConcurrency()
+    {
+        return MAX_CONCURRENCY;
+    }
+
+    @Override
+    public double getRequestsPerSecond()
+    {
+        return RBTSettings.getInstance().getRequestsPerSecond();
+    }
+
+    @Override
+    public int getRequestsBurst()
+    {
+        return RBTSettings.getInstance().getRequestsBurst();
+    }
+
+    @Override
+    public ITranslationProcessor createProcessor(final @NonNull TranslationProviderContext context)
+    {
+        GoogleTranslatorProcessor processor = new GoogleTranslatorProcessor(
+                RBTSettings.getInstance().getEndpoint(),
+                context.getHttpClient(),
+                context.getAsyncHttpClient(),
+                context.getMemory(),
+                context.getRateLimiter(),
+                context.getRetryPolicy(),
+                getMaxBatchEntries(),
+                getMaxBatchLength());
+        processor.setMetrics(context.getMetrics());
+
+        return processor;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.provider;
+
+import com.intellij.openapi.extensions.ExtensionPointName;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcessor;
+import org.ressec.core.extension.i18n.translation.engine.TranslationException;
+
+/**
+ * Provides the behavior of a translation provider (a translation backend) contributed through the
+ * {@code translationProvider} extension point.
+ * <br>
+ * A provider declares its own limits: the run sizes the batches, the requests in flight and the rate of the requests
+ * after them. Its processor may implement {@link com.hemajoo.commerce.plugin.rbt.translation.IBatchTranslationProcessor},
+ * {@link com.hemajoo.commerce.plugin.rbt.translation.IAsyncTranslationProcessor} and
+ * {@link com.hemajoo.commerce.plugin.rbt.translation.IObservableTranslationProcessor} to take part in the batched,
+ * asynchronous and resumable runs.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public interface ITranslationProvider
+{
+    /**
+     * Translation provider extension point.
+     */
+    ExtensionPointName<ITranslationProvider> EP_NAME = ExtensionPointName.create("com.hemajoo.commerce.plugin.i18n-translator.translationProvider");
+
+    /**
+     * Returns the unique identifier of the provider, used to select it.
+     * @return Identifier.
+     */
+    String getId();
+
+    /**
+     * Returns the name of the provider displayed to the user.
+     * @return Name.
+     */
+    String getName();
+
+    /**
+     * Returns the maximum number of request entries sent in a single request.
+     * @return Maximum number of entries per batch.
+     */
+    int getMaxBatchEntries();
+
+    /**
+     * Returns the maximum length of the text sent in a single request.
+     * @return Maximum batch length.
+     */
+    int getMaxBatchLength();
+
+    /**
+     * Returns the maximum number of requests sent concurrently to the provider.
+     * @return Maximum concurrency.
+     */
+    int getMaxConcurrency();
+
+    /**
+     * Returns the maximum number of requests per second sent to the provider.
+     * @return Requests per second ({@link Double#MAX_VALUE} if not limited).
+     */
+    double getRequestsPerSecond();
+
+    /**
+     * Returns the maximum number of requests sent in a burst to the provider.
+     * @return Requests burst.
+     */
+    int getRequestsBurst();
+
+    /**
+     * Creates the translation processor of a run.
+     * @param context Resources shared by the runs.
+     * @return Translation processor.
+     * @throws TranslationException Thrown in case the provider cannot be used (for example: invalid configuration).
+     */
+    ITranslationProcessor createProcessor(TranslationProviderContext context) throws TranslationException;
+}
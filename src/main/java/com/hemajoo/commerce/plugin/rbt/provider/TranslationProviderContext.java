@@ -0,0 +1,91 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.provider;
+
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationHttpClient;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationMemory;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationMetrics;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationRateLimiter;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationRetryPolicy;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.net.http.HttpClient;
+
+/**
+ * Represents the resources shared by the runs and handed to a {@link ITranslationProvider} creating the processor of
+ * a run.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationProviderContext
+{
+    /**
+     * Pooled HTTP client.
+     */
+    @Getter
+    private final TranslationHttpClient httpClient;
+
+    /**
+     * Non-blocking HTTP client.
+     */
+    @Getter
+    private final HttpClient asyncHttpClient;
+
+    /**
+     * Translation memory ({@code null} if disabled).
+     */
+    @Getter
+    private final TranslationMemory memory;
+
+    /**
+     * Rate limiter of the provider, created after its declared rate.
+     */
+    @Getter
+    private final TranslationRateLimiter rateLimiter;
+
+    /**
+     * Retry policy applied to the throttled or failed requests.
+     */
+    @Getter
+    private final TranslationRetryPolicy retryPolicy;
+
+    /**
+     * Metrics of the run.
+     */
+    @Getter
+    private final TranslationMetrics metrics;
+
+    /**
+     * Creates a new translation provider context.
+     * @param httpClient Pooled HTTP client.
+     * @param asyncHttpClient Non-blocking HTTP client.
+     * @param memory Translation memory ({@code null} if disabled).
+     * @param rateLimiter Rate limiter of the provider.
+     * @param retryPolicy Retry policy.
+     * @param metrics Metrics of the run.
+     */
+    public TranslationProviderContext(final @NonNull TranslationHttpClient httpClient, final @NonNull HttpClient asyncHttpClient, final TranslationMemory memory, final @NonNull TranslationRateLimiter rateLimiter, final @NonNull TranslationRetryPolicy retryPolicy, final @NonNull TranslationMetrics metrics)
+    {
+        this.httpClient = httpClient;
+        this.asyncHttpClient = asyncHttpClient;
+        this.memory = memory;
+        this.rateLimiter = rateLimiter;
+        this.retryPolicy = retryPolicy;
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.hemajoo.commerce.plugin.rbt.translation.IBatchTranslationProcessor;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationBatch;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import lombok.Getter;
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+import org.ressec.core.extension.i18n.translation.engine.TranslationException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Provides the common behavior of the executors of a set of translation processes.
+ * <br>
+ * A failing translation process does not abort the other ones and is reported in the {@link #getFailures()} map, as
+ * are the translation processes sharing a request it failed to translate.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public abstract class AbstractTranslationExecutor
+{
+    /**
+     * Translation processes to execute.
+     */
+    @Getter
+    private final List<ITranslationProcess> processes;
+
+    /**
+     * Failed translation processes with their cause.
+     */
+    @Getter
+    private final Map<ITranslationProcess, Exception> failures = new ConcurrentHashMap<>();
+
+    /**
+     * Total number of request entries.
+     */
+    private int total;
+
+    /**
+     * Total number of request entries requiring a translation.
+     */
+    private int totalRemaining;
+
+    /**
+     * Remaining number of request entries to translate.
+     */
+    private final AtomicInteger remaining = new AtomicInteger();
+
+    /**
+     * Creates a new translation executor.
+     * @param processes Translation processes to execute.
+     */
+    protected AbstractTranslationExecutor(final @NonNull List<ITranslationProcess> processes)
+    {
+        this.processes = processes;
+    }
+
+    /**
+     * Returns the number of request entries requiring a translation.
+     * @return Number of request entries requiring a translation.
+     */
+    public int getCountEntriesToTranslate()
+    {
+        int count = 0;
+
+        for (ITranslationProcess process : processes)
+        {
+            count += process.getRequest().getCount();
+        }
+
+        return count;
+    }
+
+    /**
+     * Executes the translation processes.
+     * @param indicator Progress indicator bar.
+     * @throws ProcessCanceledException Thrown in case the execution has been cancelled.
+     */
+    public abstract void execute(ProgressIndicator indicator);
+
+    /**
+     * Initializes the progress counters before an execution.
+     */
+    protected final void start()
+    {
+        total = 0;
+        for (ITranslationProcess process : processes)
+        {
+            total += process.getRequest().getEntries().size();
+        }
+        totalRemaining = getCountEntriesToTranslate();
+        remaining.set(totalRemaining);
+    }
+
+    /**
+     * Records the failure of a translation process, only its first failure is kept.
+     * <br>
+     * Its request entries still pending, whether their batch failed or will not be sent, are abandoned so that the
+     * translation processes sharing them are reported as failed too.
+     * @param process Translation process.
+     * @param cause Cause of the failure.
+     */
+    protected final void fail(final @NonNull ITranslationProcess process, final @NonNull Exception cause)
+    {
+        if (failures.putIfAbsent(process, cause) == null && process.getProcessor() instanceof IBatchTranslationProcessor)
+        {
+            ((IBatchTranslationProcessor) process.getProcessor()).abandon(process, cause);
+        }
+    }
+
+    /**
+     * Records the failures of the translation processes left with untranslated request entries by the failure of
+     * another translation process, once all the translation processes have been executed.
+     */
+    protected final void failShared()
+    {
+        Set<IBatchTranslationProcessor> processors = new HashSet<>();
+        for (ITranslationProcess process : processes)
+        {
+            if (process.getProcessor() instanceof IBatchTranslationProcessor)
+            {
+                processors.add((IBatchTranslationProcessor) process.getProcessor());
+            }
+        }
+
+        for (IBatchTranslationProcessor processor : processors)
+        {
+            for (Map.Entry<ITranslationProcess, Exception> failure : processor.getSharedFailures().entrySet())
+            {
+                if (processes.contains(failure.getKey()))
+                {
+                    failures.putIfAbsent(failure.getKey(), failure.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Partitions the request entries requiring a translation of a translation process into batches.
+     * <br>
+     * Request entries translated while partitioning (for example from the translation memory) are accounted as
+     * translated in the progress indicator bar.
+     * @param process Translation process.
+     * @param indicator Progress indicator bar.
+     * @return List of {@link TranslationBatch}.
+     */
+    protected final List<TranslationBatch> partition(final @NonNull ITranslationProcess process, final @NonNull ProgressIndicator indicator)
+    {
+        List<ITranslationRequestEntry> entries = process.getRequest().getEntries().stream()
+                .filter(ITranslationRequestEntry::requireTranslation)
+                .collect(Collectors.toList());
+
+        List<TranslationBatch> batches;
+        if (process.getProcessor() instanceof IBatchTranslationProcessor)
+        {
+            batches = ((IBatchTranslationProcessor) process.getProcessor()).partition(process, entries);
+        }
+        else
+        {
+            batches = entries.stream()
+                    .map(entry -> new TranslationBatch(List.of(entry)))
+                    .collect(Collectors.toList());
+        }
+
+        // Request entries translated while partitioning don't require any request.
+        int resolved = entries.size() - batches.stream().mapToInt(TranslationBatch::size).sum();
+        if (resolved > 0)
+        {
+            translated(indicator, resolved);
+        }
+
+        return batches;
+    }
+
+    /**
+     * Translates a batch of request entries of a translation process, blocking the calling thread.
+     * @param process Translation process.
+     * @param batch Batch of request entries.
+     * @throws TranslationException Thrown in case an error occurred while translating the batch.
+     */
+    protected final void translate(final @NonNull ITranslationProcess process, final @NonNull TranslationBatch batch) throws TranslationException
+    {
+        if (process.getProcessor() instanceof IBatchTranslationProcessor)
+        {
+            ((IBatchTranslationProcessor) process.getProcessor()).translate(process, batch);
+        }
+        else
+        {
+            for (ITranslationRequestEntry entry : batch.getEntries())
+            {
+                process.getProcessor().translate(process, entry);
+            }
+        }
+    }
+
+    /**
+     * Accounts translated request entries and updates the progress indicator bar.
+     * @param indicator Progress indicator bar.
+     * @param count Number of translated request entries.
+     */
+    protected final void translated(final @NonNull ProgressIndicator indicator, final int count)
+    {
+        int left = remaining.addAndGet(-count);
+        indicator.setText(String.format("Total of request entries: %d. Remaining request entries to translate: %d on a total of: %d", total, left, totalRemaining));
+        indicator.setFraction((totalRemaining - left) / (double) totalRemaining);
+    }
+}
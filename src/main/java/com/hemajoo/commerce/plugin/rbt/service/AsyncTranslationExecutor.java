@@ -0,0 +1,246 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.hemajoo.commerce.plugin.rbt.translation.IAsyncTranslationProcessor;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationBatch;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.TranslationException;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes a set of translation processes from a single thread, keeping a bounded number of asynchronous translation
+ * requests in flight.
+ * <br>
+ * The batches of the translation processes are interleaved so all the target files progress together. A new batch is
+ * only dispatched once an in-flight one completed (back-pressure), so the number of pending requests never exceeds
+ * the configured limit whatever the number of batches. Translation processes whose processor is not an
+ * {@link IAsyncTranslationProcessor} are translated on the given fallback executor.
+ * <br>
+ * A failing translation process does not abort the other ones and is reported in the {@link #getFailures()} map, its
+ * remaining batches are skipped. A translation process is marked as translated as soon as its last batch completed,
+ * so it is saved even if the execution is cancelled afterwards.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class AsyncTranslationExecutor extends AbstractTranslationExecutor
+{
+    /**
+     * Delay (in milliseconds) between two checks of the progress indicator cancellation while waiting for a slot.
+     */
+    private static final long CANCELLATION_POLL_DELAY = 100;
+
+    /**
+     * Maximum number of batches being translated at the same time.
+     */
+    private final int maxInFlight;
+
+    /**
+     * Executor translating the batches of the processors not supporting the asynchronous translations.
+     */
+    private final Executor fallbackExecutor;
+
+    /**
+     * Creates a new asynchronous translation executor.
+     * @param processes Translation processes to execute.
+     * @param maxInFlight Maximum number of batches being translated at the same time.
+     * @param fallbackExecutor Executor translating the batches of the processors not supporting the asynchronous
+     * translations.
+     */
+    public AsyncTranslationExecutor(final @NonNull List<ITranslationProcess> processes, final int maxInFlight, final @NonNull Executor fallbackExecutor)
+    {
+        super(processes);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.fallbackExecutor = fallbackExecutor;
+    }
+
+    @Override
+    public void execute(final @NonNull ProgressIndicator indicator)
+    {
+        start();
+
+        Map<ITranslationProcess, List<TranslationBatch>> batches = new LinkedHashMap<>();
+        Map<ITranslationProcess, AtomicInteger> pending = new HashMap<>();
+        List<TranslationBatch> partition;
+        for (ITranslationProcess process : getProcesses())
+        {
+            if (process.requireProcessing())
+            {
+                try
+                {
+                    partition = partition(process, indicator);
+                    if (partition.isEmpty())
+                    {
+                        // Translated while partitioning, no request to send.
+                        process.hasBeenTranslated();
+                        continue;
+                    }
+                    batches.put(process, partition);
+                    pending.put(process, new AtomicInteger(partition.size()));
+                }
+                catch (RuntimeException e)
+                {
+                    if (e instanceof ProcessCanceledException)
+                    {
+                        throw e;
+                    }
+                    fail(process, e);
+                }
+            }
+        }
+
+        Semaphore slots = new Semaphore(maxInFlight);
+        Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+
+        try
+        {
+            boolean dispatched = true;
+            for (int i = 0; dispatched; i++)
+            {
+                dispatched = false;
+                for (Map.Entry<ITranslationProcess, List<TranslationBatch>> entry : batches.entrySet())
+                {
+                    if (i < entry.getValue().size() && !getFailures().containsKey(entry.getKey()))
+                    {
+                        acquire(slots, 1, indicator);
+                        dispatch(entry.getKey(), entry.getValue().get(i), pending.get(entry.getKey()), slots, inFlight, indicator);
+                        dispatched = true;
+                    }
+                }
+            }
+
+            // Wait for the completion of all the in-flight batches.
+            acquire(slots, maxInFlight, indicator);
+            failShared();
+        }
+        finally
+        {
+            for (CompletableFuture<Void> future : inFlight)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Dispatches the translation of a batch, releasing its slot once completed. The translation process is marked as
+     * translated once its last batch completed without failure.
+     * @param process Translation process.
+     * @param batch Batch of request entries.
+     * @param pending Number of batches of the translation process not yet completed.
+     * @param slots Slots of the in-flight batches.
+     * @param inFlight In-flight batches.
+     * @param indicator Progress indicator bar.
+     */
+    private void dispatch(final @NonNull ITranslationProcess process, final @NonNull TranslationBatch batch, final @NonNull AtomicInteger pending, final @NonNull Semaphore slots, final @NonNull Set<CompletableFuture<Void>> inFlight, final @NonNull ProgressIndicator indicator)
+    {
+        CompletableFuture<Void> future;
+        try
+        {
+            future = translateAsync(process, batch);
+        }
+        catch (RuntimeException e)
+        {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        inFlight.add(future);
+        CompletableFuture<Void> tracked = future;
+        future.whenComplete((result, error) ->
+        {
+            inFlight.remove(tracked);
+            try
+            {
+                if (error == null)
+                {
+                    translated(indicator, batch.size());
+                    if (pending.decrementAndGet() == 0 && !getFailures().containsKey(process))
+                    {
+                        process.hasBeenTranslated();
+                    }
+                }
+                else
+                {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    fail(process, cause instanceof Exception ? (Exception) cause : new TranslationException(cause.getMessage()));
+                }
+            }
+            finally
+            {
+                slots.release();
+            }
+        });
+    }
+
+    /**
+     * Translates asynchronously a batch of request entries of a translation process.
+     * @param process Translation process.
+     * @param batch Batch of request entries.
+     * @return Future completing when the batch has been translated.
+     */
+    private CompletableFuture<Void> translateAsync(final @NonNull ITranslationProcess process, final @NonNull TranslationBatch batch)
+    {
+        if (process.getProcessor() instanceof IAsyncTranslationProcessor)
+        {
+            return ((IAsyncTranslationProcessor) process.getProcessor()).translateAsync(process, batch);
+        }
+
+        return CompletableFuture.runAsync(() ->
+        {
+            try
+            {
+                translate(process, batch);
+            }
+            catch (TranslationException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, fallbackExecutor);
+    }
+
+    /**
+     * Acquires slots while checking for the cancellation of the progress indicator.
+     * @param slots Slots of the in-flight batches.
+     * @param count Number of slots to acquire.
+     * @param indicator Progress indicator bar.
+     */
+    private void acquire(final @NonNull Semaphore slots, final int count, final @NonNull ProgressIndicator indicator)
+    {
+        while (true)
+        {
+            indicator.checkCanceled();
+            try
+            {
+                if (slots.tryAcquire(count, CANCELLATION_POLL_DELAY, TimeUnit.MILLISECONDS))
+                {
+                    return;
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.hemajoo.commerce.plugin.rbt.model.I18nGoogleTranslationRequest;
+import com.hemajoo.commerce.plugin.rbt.translation.ITranslationListener;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationMetrics;
+import com.intellij.lang.properties.IProperty;
+import com.intellij.lang.properties.PropertiesImplUtil;
+import com.intellij.lang.properties.psi.PropertiesFile;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the translated request entries to the target documents while a run is in progress.
+ * <br>
+ * The translations are collected from the translation threads and flushed in chunks, each time a given number of
+ * entries has been translated or a given delay elapsed since the last flush. The delay is also checked periodically
+ * until the writer is closed, so the pending translations are written even while the provider stalls. A chunk is
+ * written on the EDT with one write command per target file, through the PSI of the properties file (existing
+ * properties are updated, missing ones are added), then the documents are saved to disk so the partial progress
+ * survives a failed run or an IDE crash.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class ProgressiveDocumentWriter implements ITranslationListener, Closeable
+{
+    /**
+     * Minimum period (in milliseconds) of the check of the delay since the last flush.
+     */
+    private static final long MIN_CHECK_PERIOD = 100;
+
+    /**
+     * Project.
+     */
+    private final Project project;
+
+    /**
+     * Number of translated entries triggering a flush.
+     */
+    private final int maxEntries;
+
+    /**
+     * Delay (in milliseconds) since the last flush triggering a flush.
+     */
+    private final long maxDelay;
+
+    /**
+     * Metrics of the run, recording the time spent writing on the EDT.
+     */
+    private final TranslationMetrics metrics;
+
+    /**
+     * Pending translations (key to translated value) per translation process.
+     */
+    private Map<ITranslationProcess, Map<String, String>> pending = new LinkedHashMap<>();
+
+    /**
+     * Number of pending translations.
+     */
+    private int pendingCount;
+
+    /**
+     * Time (in milliseconds) of the last flush.
+     */
+    private long flushTime = System.currentTimeMillis();
+
+    /**
+     * Periodic check of the delay since the last flush ({@code null} if the delay is disabled).
+     */
+    private final ScheduledFuture<?> check;
+
+    /**
+     * Creates a new progressive document writer.
+     * @param project Project.
+     * @param maxEntries Number of translated entries triggering a flush.
+     * @param maxDelaySeconds Delay (in seconds) since the last flush triggering a flush.
+     * @param metrics Metrics of the run.
+     */
+    public ProgressiveDocumentWriter(final @NonNull Project project, final int maxEntries, final int maxDelaySeconds, final @NonNull TranslationMetrics metrics)
+    {
+        this.project = project;
+        this.metrics = metrics;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxDelay = TimeUnit.SECONDS.toMillis(maxDelaySeconds);
+
+        long period = Math.max(MIN_CHECK_PERIOD, maxDelay / 4);
+        this.check = maxDelay > 0
+                ? AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(this::flushIfDue, period, period, TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    @Override
+    public void onTranslated(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry, final @NonNull String translation)
+    {
+        boolean flush;
+
+        synchronized (this)
+        {
+            pending.computeIfAbsent(process, key -> new LinkedHashMap<>()).put(entry.getKey(), translation);
+            pendingCount++;
+            flush = pendingCount >= maxEntries || System.currentTimeMillis() - flushTime >= maxDelay;
+        }
+
+        if (flush)
+        {
+            flush();
+        }
+    }
+
+    /**
+     * Flushes the pending translations if the delay since the last flush elapsed.
+     */
+    private void flushIfDue()
+    {
+        synchronized (this)
+        {
+            if (System.currentTimeMillis() - flushTime < maxDelay)
+            {
+                return;
+            }
+        }
+
+        flush();
+    }
+
+    /**
+     * Stops the periodic check of the delay and flushes the pending translations, once the run is finished.
+     */
+    @Override
+    public void close()
+    {
+        if (check != null)
+        {
+            check.cancel(false);
+        }
+
+        flush();
+    }
+
+    /**
+     * Schedules the write of the pending translations on the EDT.
+     */
+    public void flush()
+    {
+        Map<ITranslationProcess, Map<String, String>> chunk;
+
+        synchronized (this)
+        {
+            if (pendingCount == 0)
+            {
+                return;
+            }
+
+            chunk = pending;
+            pending = new LinkedHashMap<>();
+            pendingCount = 0;
+            flushTime = System.currentTimeMillis();
+        }
+
+        ApplicationManager.getApplication().invokeLater(() -> write(chunk));
+    }
+
+    /**
+     * Writes translations to the target documents.
+     * @param chunk Translations (key to translated value) per translation process.
+     */
+    private void write(final @NonNull Map<ITranslationProcess, Map<String, String>> chunk)
+    {
+        if (project.isDisposed())
+        {
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (Map.Entry<ITranslationProcess, Map<String, String>> entry : chunk.entrySet())
+        {
+            PsiFile file = ((I18nGoogleTranslationRequest) entry.getKey().getRequest()).getTarget().getFile();
+            PropertiesFile properties = file.isValid() ? PropertiesImplUtil.getPropertiesFile(file) : null;
+            if (properties == null)
+            {
+                continue;
+            }
+
+            WriteCommandAction.runWriteCommandAction(project, "Save Translated Properties", null, () ->
+            {
+                IProperty property;
+                for (Map.Entry<String, String> translation : entry.getValue().entrySet())
+                {
+                    property = properties.findPropertyByKey(translation.getKey());
+                    if (property != null)
+                    {
+                        property.setValue(translation.getValue());
+                    }
+                    else
+                    {
+                        properties.addProperty(translation.getKey(), translation.getValue());
+                    }
+                }
+            }, file);
+
+            Document document = PsiDocumentManager.getInstance(project).getDocument(file);
+            if (document != null)
+            {
+                PsiDocumentManager.getInstance(project).doPostponedOperationsAndUnblockDocument(document);
+                FileDocumentManager.getInstance().saveDocument(document);
+            }
+        }
+        metrics.recordEdtWrite(System.nanoTime() - start);
+    }
+}
@@ -16,33 +16,71 @@
  */
 package com.hemajoo.commerce.plugin.rbt.service;
 
+import com.hemajoo.commerce.plugin.rbt.message.MessageActivate;
+import com.hemajoo.commerce.plugin.rbt.message.MessageTranslationStatus;
+import com.hemajoo.commerce.plugin.rbt.model.BundleSnapshot;
 import com.hemajoo.commerce.plugin.rbt.model.I18nGoogleTranslationRequest;
 import com.hemajoo.commerce.plugin.rbt.model.PropertiesModel;
+import com.hemajoo.commerce.plugin.rbt.model.PropertiesModelException;
 import com.hemajoo.commerce.plugin.rbt.model.TranslationFile;
-import com.hemajoo.commerce.plugin.rbt.translation.GoogleTranslationProcess;
+import com.hemajoo.commerce.plugin.rbt.model.TranslationFingerprints;
+import com.hemajoo.commerce.plugin.rbt.model.TranslationSource;
+import com.hemajoo.commerce.plugin.rbt.model.TranslationStatus;
+import com.hemajoo.commerce.plugin.rbt.provider.GoogleTranslationProvider;
+import com.hemajoo.commerce.plugin.rbt.provider.ITranslationProvider;
+import com.hemajoo.commerce.plugin.rbt.provider.TranslationProviderContext;
+import com.hemajoo.commerce.plugin.rbt.translation.IObservableTranslationProcessor;
+import com.hemajoo.commerce.plugin.rbt.translation.ProviderTranslationProcess;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationMetrics;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationHttpClient;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationRateLimiter;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationRetryPolicy;
+import com.hemajoo.commerce.plugin.rbt.util.RBTDocumentPatcher;
 import com.hemajoo.commerce.plugin.rbt.util.RBTMessageNotifier;
+import com.hemajoo.commerce.plugin.rbt.util.RBTStorage;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.Application;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.command.CommandProcessor;
 import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.diff.DiffBundle;
 import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
 import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
-import org.ressec.core.extension.i18n.translation.engine.ITranslationRequest;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcessor;
 import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
 import org.ressec.core.extension.i18n.translation.engine.TranslationException;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Locale;
-import java.util.Map;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Represents a I18n service which controls the whole translation process.
@@ -50,12 +88,58 @@ import java.util.Map;
  * @version 1.0.0
  */
 @Service
-public final class RBTService
+public final class RBTService implements Disposable
 {
     /**
-     * Translation processes.
+     * Logger.
      */
-    private final List<ITranslationProcess> processes = new ArrayList<>();
+    private static final Logger LOGGER = Logger.getInstance(RBTService.class);
+
+    /**
+     * Translation fingerprints storage file name.
+     */
+    private static final String FINGERPRINTS_FILE_NAME = "fingerprints.bin";
+
+    /**
+     * Maximum number of stale keys listed in a notification.
+     */
+    private static final int MAX_REPORTED_STALE_KEYS = 10;
+
+    /**
+     * Timeout (in seconds) of the connections opened by the asynchronous HTTP client.
+     */
+    private static final int ASYNC_CONNECT_TIMEOUT = 30;
+
+    /**
+     * Checkpoint journals directory name.
+     */
+    private static final String JOURNAL_DIRECTORY_NAME = "checkpoints";
+
+    /**
+     * Checkpoint journal file extension.
+     */
+    private static final String JOURNAL_EXTENSION = ".journal";
+
+    /**
+     * Translation runs in progress, each one translating its own snapshot of resource bundles.
+     */
+    private final Set<TranslationRun> runs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Executor listing the checkpoint journals of the project, one listing at a time.
+     */
+    private final ExecutorService journalExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor("I18n checkpoint journals", 1);
+
+    /**
+     * Whether the project has an interrupted run which can be resumed ({@code null} until its journals are listed).
+     */
+    private volatile Boolean resumable;
+
+    /**
+     * Performance report of the last finished run ({@code null} if none).
+     */
+    @Getter
+    private volatile TranslationRunReport lastReport;
 
     /**
      * Data model used by the service.
@@ -69,6 +153,32 @@ public final class RBTService
     @Getter
     private Project project;
 
+    /**
+     * Pooled HTTP client shared by all the translation processes of the project.
+     */
+    private TranslationHttpClient httpClient;
+
+    /**
+     * Non-blocking HTTP client shared by all the asynchronous translation requests of the project.
+     */
+    private HttpClient asyncHttpClient;
+
+    /**
+     * Rate limiters shared by the requests sent to each translation provider.
+     */
+    private final Map<String, TranslationRateLimiter> rateLimiters = new HashMap<>();
+
+    /**
+     * Identifier of the translation provider of the next runs ({@code null} for the one of the settings).
+     */
+    @Setter
+    private String providerId;
+
+    /**
+     * Fingerprints of the translated entries of the project (loaded lazily on first access).
+     */
+    private TranslationFingerprints fingerprints;
+
     /**
      * Creates a I18n service.
      */
@@ -88,6 +198,33 @@ public final class RBTService
         model.collect();
     }
 
+    /**
+     * Loads the data model of a resource bundle in a non-blocking read action on a pooled thread, the
+     * {@link MessageActivate#MESSAGE_TOPIC_ACTIVATE_TRANSLATOR} message is published once the model is loaded. A load
+     * still in progress is cancelled by a newer one.
+     * @param project Project.
+     * @param sourceTranslation Translation file of the resource bundle used as source.
+     */
+    public void loadModel(final @NonNull Project project, final @NonNull TranslationFile sourceTranslation)
+    {
+        ReadAction.nonBlocking(() ->
+                {
+                    PropertiesModel loaded = new PropertiesModel(project, sourceTranslation);
+                    loaded.collect();
+                    return loaded;
+                })
+                .coalesceBy(this, project)
+                .expireWith(this)
+                .finishOnUiThread(ModalityState.defaultModalityState(), loaded ->
+                {
+                    this.model = loaded;
+                    this.project = project;
+                    project.getMessageBus().syncPublisher(MessageActivate.MESSAGE_TOPIC_ACTIVATE_TRANSLATOR).fileSelected();
+                })
+                .submit(AppExecutorUtil.getAppExecutorService())
+                .onError(error -> reportFailure(project, "Cannot load resource bundle", error));
+    }
+
     /**
      * Executes a set of prepared translations.
      */
@@ -101,139 +238,720 @@ public final class RBTService
      */
     public void executeBackground()
     {
-        prepare();
+        executeBackground(null, newJournalPath(project), List.of(getModel().snapshot()));
+    }
+
+    /**
+     * Resumes the interrupted translation runs of the project: the source and target files of each run are selected
+     * again and the entries recorded by its checkpoint journal are not sent to the translation provider again. The
+     * resource bundles of a run are loaded in a non-blocking read action before the run starts.
+     * @param project Project.
+     * @return True if runs are being resumed, false if there is no interrupted run.
+     */
+    public boolean resume(final @NonNull Project project)
+    {
+        this.project = project;
 
-        ProgressManager.getInstance().run(new Task.Backgroundable(project, "I18n property translation")
+        boolean resumed = false;
+        TranslationJournal.LastRun lastRun;
+        for (Path file : getResumableJournals(project))
         {
-            @Override
-            public void onFinished()
+            try
+            {
+                lastRun = TranslationJournal.read(file);
+            }
+            catch (IOException e)
             {
-                try
+                LOGGER.warn("Cannot read the translation checkpoint journal: " + file, e);
+                continue;
+            }
+
+            if (lastRun == null)
+            {
+                // Journal of a previous format, it cannot be resumed.
+                TranslationJournal.delete(file);
+                refreshResumable(project);
+                continue;
+            }
+
+            resume(project, file, lastRun);
+            resumed = true;
+        }
+
+        return resumed;
+    }
+
+    /**
+     * Resumes an interrupted translation run, its checkpoint journal is kept by the resumed run.
+     * <br>
+     * The resource bundles whose source file no longer exists are left out of the resumed run, its checkpoint journal
+     * is deleted if none of them is left so that the run is no longer proposed for resuming.
+     * @param project Project.
+     * @param file Checkpoint journal file of the run.
+     * @param lastRun Content of the checkpoint journal.
+     */
+    private void resume(final @NonNull Project project, final @NonNull Path file, final @NonNull TranslationJournal.LastRun lastRun)
+    {
+        ReadAction.nonBlocking(() ->
                 {
-                    save();
-                }
-                catch (TranslationException e)
+                    ResumedRun resumed = new ResumedRun();
+                    for (Map.Entry<String, List<String>> bundle : lastRun.getBundles().entrySet())
+                    {
+                        try
+                        {
+                            resumed.models.add(resume(project, bundle.getKey(), bundle.getValue()));
+                        }
+                        catch (PropertiesModelException e)
+                        {
+                            LOGGER.warn("Cannot resume the translation of: " + bundle.getKey(), e);
+                            resumed.missing.add(bundle.getKey());
+                        }
+                    }
+                    return resumed;
+                })
+                .expireWith(this)
+                .finishOnUiThread(ModalityState.defaultModalityState(), resumed ->
                 {
-                    RBTMessageNotifier.error(project, String.format("Cannot save document due to: %s", e.getMessage()));
-                }
-            }
+                    for (String missing : resumed.missing)
+                    {
+                        RBTMessageNotifier.error(project, String.format("Cannot resume the translation of: '%s', its source file no longer exists or is not valid!", missing));
+                    }
+
+                    if (resumed.models.isEmpty())
+                    {
+                        TranslationJournal.delete(file);
+                        refreshResumable(project);
+                        RBTMessageNotifier.notify(project, "<b>Interrupted translation discarded</b>.<br>None of its resource bundles can be translated anymore.");
+                        return;
+                    }
+
+                    // A single bundle run is shown again in the tool window.
+                    if (resumed.models.size() == 1)
+                    {
+                        model = resumed.models.get(0);
+                        project.getMessageBus().syncPublisher(MessageActivate.MESSAGE_TOPIC_ACTIVATE_TRANSLATOR).fileSelected();
+                    }
 
-            @Override
-            public void run(final @NotNull ProgressIndicator indicator)
+                    executeBackground(lastRun, file, snapshot(resumed.models));
+                })
+                .submit(AppExecutorUtil.getAppExecutorService())
+                .onError(error -> reportFailure(project, "Cannot resume translation", error));
+    }
+
+    /**
+     * Rebuilds the model of a resource bundle of an interrupted run, in a read action.
+     * @param project Project.
+     * @param sourcePath Path of the source file of the bundle.
+     * @param targetPaths Paths of the target files of the bundle.
+     * @return Properties model.
+     * @throws PropertiesModelException Thrown in case the source file no longer exists or is not valid.
+     */
+    private PropertiesModel resume(final @NonNull Project project, final @NonNull String sourcePath, final @NonNull List<String> targetPaths) throws PropertiesModelException
+    {
+        VirtualFile file = LocalFileSystem.getInstance().findFileByPath(sourcePath);
+        PsiFile source = file != null ? PsiManager.getInstance(project).findFile(file) : null;
+        if (source == null)
+        {
+            throw new PropertiesModelException(String.format("source file: '%s' no longer exists!", sourcePath));
+        }
+
+        PropertiesModel resumed = new PropertiesModel(project, new TranslationFile(source));
+        resumed.collect();
+        resumed.sourceTranslationChanged(resumed.getSourceTranslation().getLocale());
+
+        for (TranslationFile target : resumed.getTargetTranslation().values())
+        {
+            if (targetPaths.contains(getPath(target)))
             {
-                try
+                resumed.selectTarget(target.getLocale());
+            }
+        }
+
+        return resumed;
+    }
+
+    /**
+     * Translates all the resource bundles of the project in a single background run: the translation processes of all
+     * the bundles and locales share the same queue, HTTP clients, translation memory and rate limiter. The default
+     * properties file of each bundle is its source and all its other properties files are translated.
+     * <br>
+     * The resource bundles are collected in a non-blocking read action once the project indexes are available.
+     * @param project Project.
+     */
+    public void executeAll(final @NonNull Project project)
+    {
+        this.project = project;
+
+        ReadAction.nonBlocking(() -> PropertiesModel.collectAll(project))
+                .inSmartMode(project)
+                .expireWith(this)
+                .finishOnUiThread(ModalityState.defaultModalityState(), models ->
                 {
-                    indicator.setIndeterminate(false);
-                    indicator.setFraction(0.00);
-                    indicator.setText("Computing number of entries to translate...");
+                    if (models.isEmpty())
+                    {
+                        RBTMessageNotifier.notify(project, "<b>No resource bundle to translate!</b>");
+                        return;
+                    }
+
+                    executeBackground(null, newJournalPath(project), snapshot(models));
+                })
+                .submit(AppExecutorUtil.getAppExecutorService())
+                .onError(error -> reportFailure(project, "Cannot collect resource bundles", error));
+    }
+
+    /**
+     * Returns if the project has an interrupted translation run which can be resumed.
+     * <br>
+     * It does not access the file system and can be called on each update of an action: the checkpoint journals are
+     * listed on a pooled thread the first time, then each time a run starts or finishes or a journal is deleted.
+     * @param project Project.
+     * @return True if a run can be resumed, false otherwise (or if the journals are not listed yet).
+     */
+    public boolean hasResumableRun(final @NonNull Project project)
+    {
+        Boolean known = resumable;
+        if (known == null)
+        {
+            resumable = false;
+            refreshResumable(project);
+            return false;
+        }
 
-                    execute(indicator);
+        return known;
+    }
 
-                    indicator.setFraction(1.00);
-                    indicator.setText("Translation completed.");
+    /**
+     * Lists the checkpoint journals of the project on a pooled thread to refresh if it has an interrupted translation
+     * run which can be resumed.
+     * @param project Project.
+     */
+    private void refreshResumable(final @NonNull Project project)
+    {
+        journalExecutor.execute(() -> resumable = !getResumableJournals(project).isEmpty());
+    }
 
-                    RBTMessageNotifier.notify(
-                            project,
-                            String.format("<b>Translation completed</b>.<br>Property files processed: <b>%d</b>.<br>Request entries translated: <b>%d</b>", processes.size(), getTranslatedCount()));
-                }
-                catch (TranslationException e)
+    /**
+     * Executes a set of prepared translations in the background.
+     * @param resumed Interrupted run being resumed ({@code null} for a new run).
+     * @param journalPath Checkpoint journal file of the run.
+     * @param bundles Snapshots of the resource bundles to translate.
+     */
+    private void executeBackground(final TranslationJournal.LastRun resumed, final @NonNull Path journalPath, final @NonNull List<BundleSnapshot> bundles)
+    {
+        long start = System.nanoTime();
+        TranslationRun run = prepare(bundles, journalPath);
+        if (run == null)
+        {
+            return;
+        }
+
+        // Reading the documents of large bundles must not freeze the UI, the processes are created on a pooled thread
+        // and the read action is restarted if a write action happens in the meantime.
+        ReadAction.nonBlocking(() -> createProcesses(run))
+                .withDocumentsCommitted(project)
+                .expireWith(this)
+                .finishOnUiThread(ModalityState.defaultModalityState(), prepared ->
                 {
-                    // Whole translations aborted, notification of error already reported!
-                    // We still have to save the documents for the successful translations.
-                }
+                    start(run, prepared, start);
+                    ProgressManager.getInstance().run(new Task.Backgroundable(project, "I18n property translation")
+                    {
+                        @Override
+                        public void onFinished()
+                        {
+                            finish(run);
+                        }
+
+                        @Override
+                        public void run(final @NotNull ProgressIndicator indicator)
+                        {
+                            translate(run, resumed, indicator);
+                        }
+                    });
+                })
+                .submit(AppExecutorUtil.getAppExecutorService())
+                .onError(error ->
+                {
+                    runs.remove(run);
+                    refreshResumable(project);
+                    reportFailure(project, "Cannot prepare translation", error);
+                });
+    }
+
+    /**
+     * Translates the selected target translation files synchronously and writes the translated documents to disk,
+     * typically from a headless application. It must not be called from the event dispatch thread.
+     * @param indicator Progress indicator.
+     * @return True if all the entries have been translated, false if the run failed or has been cancelled.
+     */
+    public boolean executeHeadless(final @NonNull ProgressIndicator indicator)
+    {
+        return executeHeadless(indicator, () -> List.of(getModel()));
+    }
+
+    /**
+     * Translates all the resource bundles of the project synchronously (see {@link #executeAll(Project)}) and writes the
+     * translated documents to disk, typically from a headless application. It must not be called from the event
+     * dispatch thread and the project indexes must be available.
+     * @param project Project.
+     * @param indicator Progress indicator.
+     * @return True if all the entries have been translated, false if the run failed or has been cancelled.
+     */
+    public boolean executeAllHeadless(final @NonNull Project project, final @NonNull ProgressIndicator indicator)
+    {
+        this.project = project;
+        return executeHeadless(indicator, () -> PropertiesModel.collectAll(project));
+    }
+
+    /**
+     * Translates resource bundles synchronously and writes the translated documents to disk.
+     * @param indicator Progress indicator.
+     * @param models Supplier of the models of the resource bundles to translate, invoked in a read action.
+     * @return True if all the entries have been translated, false if the run failed or has been cancelled.
+     */
+    private boolean executeHeadless(final @NonNull ProgressIndicator indicator, final @NonNull Supplier<List<PropertiesModel>> models)
+    {
+        Application application = ApplicationManager.getApplication();
+        long start = System.nanoTime();
+
+        List<PropertiesModel> bundles = ReadAction.nonBlocking(models::get).executeSynchronously();
+        AtomicReference<TranslationRun> reference = new AtomicReference<>();
+        application.invokeAndWait(() -> reference.set(prepare(snapshot(bundles), newJournalPath(project))));
+        TranslationRun run = reference.get();
+        if (run == null)
+        {
+            return false;
+        }
+
+        PreparedRun prepared;
+        try
+        {
+            prepared = ReadAction.nonBlocking(() -> createProcesses(run)).executeSynchronously();
+        }
+        catch (RuntimeException e)
+        {
+            runs.remove(run);
+            refreshResumable(project);
+            throw e;
+        }
+        application.invokeAndWait(() -> start(run, prepared, start));
+
+        try
+        {
+            translate(run, null, indicator);
+        }
+        finally
+        {
+            // As for a background run, the translations of a failed or cancelled run are saved and reported.
+            application.invokeAndWait(() ->
+            {
+                finish(run);
+                FileDocumentManager.getInstance().saveAllDocuments();
+            });
+        }
+
+        return run.isCompleted();
+    }
+
+    /**
+     * Translates the prepared translation processes of a run, its checkpoint journal is started first.
+     * @param run Translation run.
+     * @param resumed Interrupted run being resumed ({@code null} for a new run).
+     * @param indicator Progress indicator.
+     */
+    private void translate(final @NonNull TranslationRun run, final TranslationJournal.LastRun resumed, final @NonNull ProgressIndicator indicator)
+    {
+        // Failed translation processes are reported by the execution, the documents of the successful
+        // translations are still saved once the task is finished.
+        indicator.setIndeterminate(false);
+        indicator.setFraction(0.00);
+        indicator.setText("Computing number of entries to translate...");
+
+        // The records of a resumed run are rewritten to its journal, this must not happen on the event dispatch thread.
+        if (run.getProcessor() instanceof IObservableTranslationProcessor)
+        {
+            run.setJournal(openJournal(run, resumed));
+            if (run.getJournal() != null)
+            {
+                ((IObservableTranslationProcessor) run.getProcessor()).addListener(run.getJournal());
+                ((IObservableTranslationProcessor) run.getProcessor()).setCheckpoint(run.getJournal());
             }
-        });
+        }
+
+        long start = System.nanoTime();
+        try
+        {
+            run.setCompleted(execute(run, indicator));
+        }
+        finally
+        {
+            // Translations of the failed or cancelled runs are kept too.
+            if (run.getWriter() != null)
+            {
+                run.getWriter().close();
+            }
+            if (run.getJournal() != null)
+            {
+                run.getJournal().close();
+            }
+            TranslationMemoryService.getInstance().save();
+            run.setExecuteTime(System.nanoTime() - start);
+        }
+
+        indicator.setFraction(1.00);
+
+        String summary = String.format("Bundles processed: <b>%d</b>.<br>Property files processed: <b>%d</b>.<br>Request entries translated: <b>%d</b>", run.getBundles().size(), run.getProcesses().size(), run.getTranslatedCount());
+        if (run.isCompleted())
+        {
+            indicator.setText("Translation completed.");
+            RBTMessageNotifier.notify(project, "<b>Translation completed</b>.<br>" + summary);
+        }
+        else if (!run.getFailures().isEmpty())
+        {
+            // The failure of each file has already been reported, the status must not contradict it.
+            indicator.setText(String.format("Translation finished with %d failed files.", run.getFailures().size()));
+            RBTMessageNotifier.error(project, String.format("<b>Translation finished with %d failed files</b>.<br>", run.getFailures().size()) + summary);
+        }
+        else
+        {
+            indicator.setText("Translation cancelled.");
+        }
     }
 
     /**
-     * Prepares a set of translation processes.
+     * Saves the translated documents once a run is finished and deletes its checkpoint journal if it is completed.
+     * @param run Translation run.
      */
-    private void prepare()
+    private void finish(final @NonNull TranslationRun run)
     {
-        processes.clear();
+        long start = System.nanoTime();
+        try
+        {
+            save(run);
+        }
+        catch (TranslationException e)
+        {
+            RBTMessageNotifier.error(project, String.format("Cannot save document due to: %s", e.getMessage()));
+        }
+        finally
+        {
+            runs.remove(run);
+        }
 
-        ITranslationProcess process;
-        ITranslationRequest request;
+        // The documents are saved on the EDT.
+        long saveTime = System.nanoTime() - start;
+        run.getMetrics().recordEdtWrite(saveTime);
+        lastReport = new TranslationRunReport(run.getProvider().getName(), run.getProcesses().size(), run.getTranslatedCount(), run.isCompleted(), run.getPrepareTime(), run.getExecuteTime(), saveTime, run.getMetrics());
 
-        // Create the translation processes, one for each file to translate.
-        for (Map.Entry<Locale, TranslationFile> entry : getModel().getTargetTranslationSelected().entrySet())
+        Map<VirtualFile, TranslationStatus> statuses = new HashMap<>();
+        for (ITranslationProcess process : run.getProcesses())
         {
-            process = new GoogleTranslationProcess();
-            request = new I18nGoogleTranslationRequest(project, getModel().getSourceTranslation(), entry.getValue());
-            process.setRequest(request);
-            if (process.requireProcessing())
+            if (run.getFailures().contains(process))
+            {
+                statuses.put(getTargetFile(process), TranslationStatus.FAILED);
+            }
+            else
             {
-                processes.add(process);
+                // Only the processes whose document has been saved with all their entries are translated.
+                statuses.put(getTargetFile(process), process.isTranslated() && process.getRequest().getCount() == 0 ? TranslationStatus.TRANSLATED : TranslationStatus.CANCELLED);
             }
         }
+        publishStatuses(statuses);
+
+        if (run.isCompleted())
+        {
+            TranslationJournal.delete(run.getJournalPath());
+        }
+        else if (run.getJournal() != null)
+        {
+            RBTMessageNotifier.notify(project, "<b>Translation interrupted</b>.<br>Use <b>Resume</b> to translate the remaining entries.");
+        }
+        refreshResumable(project);
     }
 
     /**
-     * Translates a set of translation processes.
-     * @param indicator Progress indicator bar.
-     * @throws TranslationException Thrown in case an error occurred while translating a set of translation processes.
+     * Creates a translation run and its translation processor, on the event dispatch thread, and registers it as in
+     * progress.
+     * @param bundles Snapshots of the resource bundles to translate.
+     * @param journalPath Checkpoint journal file of the run.
+     * @return Translation run or {@code null} if the translation provider cannot be used or a target translation file
+     * is already being translated by another run.
      */
-    private void execute(final @NotNull ProgressIndicator indicator) throws TranslationException
+    private TranslationRun prepare(final @NonNull List<BundleSnapshot> bundles, final @NonNull Path journalPath)
     {
-        int total = 0; // Total number of request entries.
-        int remaining = 0; // Remaining request entries to translate.
+        TranslationFile busy = getTranslatingTarget(bundles);
+        if (busy != null)
+        {
+            RBTMessageNotifier.error(project, String.format("Cannot translate: '%s', it is already being translated!", busy.getFile().getName()));
+            return null;
+        }
 
-        // Get the total number of translation processes and the total number of translations to process
-        for (ITranslationProcess process : processes)
+        TranslationMetrics metrics = new TranslationMetrics();
+        ITranslationProcessor processor;
+
+        RBTSettings settings = RBTSettings.getInstance();
+        ITranslationProvider provider = getProvider(providerId != null ? providerId : settings.getTranslationProvider());
+        try
+        {
+            processor = provider.createProcessor(new TranslationProviderContext(
+                    getHttpClient(),
+                    getAsyncHttpClient(),
+                    TranslationMemoryService.getInstance().getMemory(),
+                    getRateLimiter(provider),
+                    new TranslationRetryPolicy(
+                            settings.getMaxRetries(),
+                            settings.getRetryBaseDelay(),
+                            settings.getRetryMaxDelay()),
+                    metrics));
+        }
+        catch (TranslationException e)
         {
-            total += process.getRequest().getEntries().size();
-            remaining += process.getRequest().getCount();
+            RBTMessageNotifier.error(project, String.format("Cannot use translation provider: '%s' due to: %s", provider.getName(), e.getMessage()));
+            return null;
         }
 
-        int totalRemaining = remaining;
-        if (remaining != 0)
+        PsiDocumentManager.getInstance(project).commitAllDocuments();
+
+        // The run is registered at once, so its target files cannot be selected by another run while it is prepared.
+        TranslationRun run = new TranslationRun(bundles, provider, processor, metrics, journalPath);
+        runs.add(run);
+        refreshResumable(project);
+
+        return run;
+    }
+
+    /**
+     * Returns a target translation file of resource bundles already being translated by a run in progress.
+     * @param bundles Snapshots of resource bundles.
+     * @return Target translation file or {@code null} if none is being translated.
+     */
+    private TranslationFile getTranslatingTarget(final @NonNull List<BundleSnapshot> bundles)
+    {
+        Set<VirtualFile> translating = new HashSet<>();
+        for (TranslationRun run : runs)
         {
-            for (ITranslationProcess process : processes)
+            for (BundleSnapshot bundle : run.getBundles())
             {
-                try
+                for (TranslationFile target : bundle.getTargets())
                 {
-                    if (process.requireProcessing())
-                    {
-                        for (ITranslationRequestEntry entry : process.getRequest().getEntries())
-                        {
-                            indicator.setIndeterminate(false);
-                            process.getProcessor().translate(process, entry);
-                            remaining -= 1;
+                    translating.add(target.getFile().getVirtualFile());
+                }
+            }
+        }
 
-                            indicator.setText(String.format("Total of request entries: %d. Remaining request entries to translate: %d on a total of: %d", total, remaining, totalRemaining));
-                            indicator.setFraction((totalRemaining - remaining) * 100d / totalRemaining);
-                        }
+        for (BundleSnapshot bundle : bundles)
+        {
+            for (TranslationFile target : bundle.getTargets())
+            {
+                if (translating.contains(target.getFile().getVirtualFile()))
+                {
+                    return target;
+                }
+            }
+        }
 
-                        process.hasBeenTranslated();
-                    }
+        return null;
+    }
+
+    /**
+     * Returns the snapshots of resource bundles, on the event dispatch thread so the selection cannot change while
+     * they are taken.
+     * @param models Models of the resource bundles to translate.
+     * @return Snapshots of the resource bundles.
+     */
+    private static List<BundleSnapshot> snapshot(final @NonNull List<PropertiesModel> models)
+    {
+        List<BundleSnapshot> snapshots = new ArrayList<>();
+        for (PropertiesModel bundle : models)
+        {
+            snapshots.add(bundle.snapshot());
+        }
+
+        return snapshots;
+    }
+
+    /**
+     * Creates the translation processes of a run, one for each file to translate of each bundle. It is invoked in a
+     * read action which can be restarted, so it has no side effect.
+     * @param run Translation run.
+     * @return Prepared translation processes.
+     */
+    private PreparedRun createProcesses(final @NonNull TranslationRun run)
+    {
+        boolean retranslate = RBTSettings.getInstance().isRetranslateStaleEntries();
+        PreparedRun prepared = new PreparedRun();
+        ITranslationProcess process;
+        TranslationSource source;
+        Set<String> staleKeys;
+        Map<String, String> baselines;
+
+        for (BundleSnapshot bundle : run.getBundles())
+        {
+            source = TranslationSource.of(project, bundle.getSource());
+            for (TranslationFile target : bundle.getTargets())
+            {
+                ProgressManager.checkCanceled();
+
+                staleKeys = getFingerprints().getStaleKeys(getPath(target), source.getValues(), target.getValues().keySet());
+                if (!staleKeys.isEmpty())
+                {
+                    prepared.staleKeys.put(target, staleKeys);
+                }
+
+                baselines = getFingerprints().getBaselines(getPath(target), source.getValues(), target.getValues().keySet());
+                if (!baselines.isEmpty())
+                {
+                    prepared.baselines.put(getPath(target), baselines);
+                }
+
+                process = new ProviderTranslationProcess(run.getProcessor());
+                process.setRequest(new I18nGoogleTranslationRequest(
+                        project,
+                        source,
+                        target,
+                        retranslate ? staleKeys : Collections.emptySet()));
+                if (process.requireProcessing())
+                {
+                    prepared.processes.add(process);
                 }
-                catch (TranslationException e)
+                else
                 {
-                    RBTMessageNotifier.error(project, String.format("Translation process aborted due to: %s", e.getMessage()));
-                    throw e;
+                    prepared.upToDate.add(target);
                 }
             }
         }
-        else
+
+        return prepared;
+    }
+
+    /**
+     * Starts the writer of a prepared translation run, on the event dispatch thread.
+     * @param run Translation run.
+     * @param prepared Prepared translation processes.
+     * @param start Start time of the run preparation (in nanoseconds).
+     */
+    private void start(final @NonNull TranslationRun run, final @NonNull PreparedRun prepared, final long start)
+    {
+        RBTSettings settings = RBTSettings.getInstance();
+
+        // Only the processors reporting their translations can be saved progressively.
+        if (run.getProcessor() instanceof IObservableTranslationProcessor && settings.isProgressiveSave())
         {
-            RBTMessageNotifier.notify(project, "<b>No translation to process!</b>");
+            run.setWriter(new ProgressiveDocumentWriter(project, settings.getProgressiveSaveEntries(), settings.getProgressiveSaveSeconds(), run.getMetrics()));
+            ((IObservableTranslationProcessor) run.getProcessor()).addListener(run.getWriter());
         }
+
+        for (Map.Entry<TranslationFile, Set<String>> entry : prepared.staleKeys.entrySet())
+        {
+            reportStaleKeys(entry.getKey(), entry.getValue(), settings.isRetranslateStaleEntries());
+        }
+
+        // Keys translated outside of the plugin get the fingerprint of their current source value as baseline.
+        for (Map.Entry<String, Map<String, String>> entry : prepared.baselines.entrySet())
+        {
+            getFingerprints().record(entry.getKey(), entry.getValue());
+        }
+
+        run.setProcesses(prepared.processes);
+
+        Map<VirtualFile, TranslationStatus> statuses = new HashMap<>();
+        for (TranslationFile target : prepared.upToDate)
+        {
+            statuses.put(target.getFile().getVirtualFile(), TranslationStatus.UP_TO_DATE);
+        }
+        for (ITranslationProcess process : run.getProcesses())
+        {
+            statuses.put(getTargetFile(process), TranslationStatus.QUEUED);
+        }
+        publishStatuses(statuses);
+
+        run.setPrepareTime(System.nanoTime() - start);
     }
 
     /**
-     * Saves the associated documents of a set of executed translation processes.
+     * Returns the target file of a translation process.
+     * @param process Translation process.
+     * @return Target file.
+     */
+    private static VirtualFile getTargetFile(final @NonNull ITranslationProcess process)
+    {
+        return ((I18nGoogleTranslationRequest) process.getRequest()).getTarget().getFile().getVirtualFile();
+    }
+
+    /**
+     * Publishes the status of target translation files, on the event dispatch thread.
+     * @param statuses Translation statuses per target file.
+     */
+    private void publishStatuses(final @NonNull Map<VirtualFile, TranslationStatus> statuses)
+    {
+        if (!statuses.isEmpty())
+        {
+            project.getMessageBus().syncPublisher(MessageTranslationStatus.MESSAGE_TOPIC_TRANSLATION_STATUS).statusChanged(statuses);
+        }
+    }
+
+    /**
+     * Translates a set of translation processes concurrently, each failing translation process being reported without
+     * aborting the other ones.
+     * @param run Translation run.
+     * @param indicator Progress indicator bar.
+     * @return True if all the entries have been translated, false if the run failed or has been cancelled.
+     */
+    private boolean execute(final @NonNull TranslationRun run, final @NotNull ProgressIndicator indicator)
+    {
+        ITranslationProvider provider = run.getProvider();
+        List<ITranslationProcess> processes = run.getProcesses();
+
+        // The settings limits are capped by the ones declared by the translation provider.
+        RBTSettings settings = RBTSettings.getInstance();
+        ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+                "I18n property translation",
+                Math.max(1, Math.min(settings.getMaxParallelProcesses(), provider.getMaxConcurrency())));
+
+        try
+        {
+            AbstractTranslationExecutor translator = settings.isAsyncRequests()
+                    ? new AsyncTranslationExecutor(processes, Math.max(1, Math.min(settings.getMaxInFlightRequests(), provider.getMaxConcurrency())), executor)
+                    : new TranslationExecutor(processes, executor);
+            if (translator.getCountEntriesToTranslate() == 0)
+            {
+                RBTMessageNotifier.notify(project, "<b>No translation to process!</b>");
+                return true;
+            }
+
+            translator.execute(indicator);
+            run.getFailures().addAll(translator.getFailures().keySet());
+
+            for (Map.Entry<ITranslationProcess, Exception> failure : translator.getFailures().entrySet())
+            {
+                RBTMessageNotifier.error(project, String.format(
+                        "Translation process of: '%s' aborted due to: %s",
+                        ((I18nGoogleTranslationRequest) failure.getKey().getRequest()).getTarget().getFile().getName(),
+                        failure.getValue().getMessage()));
+            }
+
+            return translator.getFailures().isEmpty() && !indicator.isCanceled();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Saves the associated documents of the executed translation processes of a run.
+     * @param run Translation run.
      * @throws TranslationException Thrown in case an error occurred while saving the documents of a set of executed
      * translation processes.
      */
-    private void save() throws TranslationException
+    private void save(final @NonNull TranslationRun run) throws TranslationException
     {
         I18nGoogleTranslationRequest request;
 
-        // Update for all process the document entity.
-        for (ITranslationProcess process : processes)
+        // Update for all process the document entity, one undoable command of minimal edits per document.
+        for (ITranslationProcess process : run.getProcesses())
         {
-            // Only save translations that have been processed.
-            if (process.isTranslated())
+            // Only save translations that have been processed, a failed process is left to a resumed run.
+            if (process.isTranslated() && !run.getFailures().contains(process))
             {
                 request = ((I18nGoogleTranslationRequest) process.getRequest());
                 final Document document = PsiDocumentManager.getInstance(project).getDocument(request.getTarget().getFile());
@@ -245,36 +963,352 @@ public final class RBTService
                             .executeCommand(
                                     project,
                                     () -> ApplicationManager.getApplication().runWriteAction(
-                                            () -> document.setText(content)),
+                                            () -> { RBTDocumentPatcher.apply(document, content); }),
                                     DiffBundle.message("save.merge.result.command.name"),
                                     document);
+
+                    recordFingerprints(request, process);
                 }
             }
         }
 
-        model.refresh();
+        for (BundleSnapshot bundle : run.getBundles())
+        {
+            bundle.getSource().refresh();
+            for (TranslationFile target : bundle.getTargets())
+            {
+                target.refresh();
+            }
+        }
+        ApplicationManager.getApplication().executeOnPooledThread(this::saveFingerprints);
+    }
+
+    /**
+     * Reports the stale keys (whose source value changed since their translation) of a target translation file.
+     * @param target Target translation file.
+     * @param staleKeys Stale keys.
+     * @param retranslate True if the stale keys are translated again, false if they are only reported.
+     */
+    private void reportStaleKeys(final @NonNull TranslationFile target, final @NonNull Set<String> staleKeys, final boolean retranslate)
+    {
+        if (staleKeys.isEmpty())
+        {
+            return;
+        }
+
+        String keys = String.join(", ", new ArrayList<>(staleKeys).subList(0, Math.min(staleKeys.size(), MAX_REPORTED_STALE_KEYS)));
+        if (staleKeys.size() > MAX_REPORTED_STALE_KEYS)
+        {
+            keys += ", ...";
+        }
+
+        RBTMessageNotifier.notify(project, String.format(
+                retranslate
+                        ? "<b>%d changed entries</b> will be translated again in: <b>%s</b>.<br>%s"
+                        : "<b>%d stale entries</b> (source value changed) in: <b>%s</b>.<br>%s",
+                staleKeys.size(),
+                target.getFile().getName(),
+                keys));
     }
 
     /**
-     * Returns the number of translated elements.
-     * @return Number of translated elements.
+     * Records the fingerprints of the translated entries of a translation process.
+     * @param request Translation request.
+     * @param process Translation process.
      */
-    private int getTranslatedCount()
+    private void recordFingerprints(final @NonNull I18nGoogleTranslationRequest request, final @NonNull ITranslationProcess process)
     {
-        int count = 0;
+        String path = getPath(request.getTarget());
+        String value;
 
-        for (ITranslationProcess process : processes)
+        for (ITranslationRequestEntry entry : process.getRequest().getEntries())
         {
-            for (ITranslationRequestEntry entry : process.getRequest().getEntries())
+            value = request.getSourceValues().get(entry.getKey());
+            if (entry.getTranslationTimeStamp() != null && value != null)
             {
-                if (entry.getTranslationTimeStamp() != null)
+                getFingerprints().record(path, entry.getKey(), value);
+            }
+        }
+    }
+
+    /**
+     * Returns the translation fingerprints of the project, loading them on first use.
+     * @return {@link TranslationFingerprints}.
+     */
+    private synchronized TranslationFingerprints getFingerprints()
+    {
+        if (fingerprints == null)
+        {
+            fingerprints = new TranslationFingerprints(RBTStorage.getProjectDirectory(project).resolve(FINGERPRINTS_FILE_NAME));
+        }
+
+        return fingerprints;
+    }
+
+    /**
+     * Saves the translation fingerprints of the project.
+     */
+    private void saveFingerprints()
+    {
+        try
+        {
+            getFingerprints().save();
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn("Cannot save the translation fingerprints", e);
+        }
+    }
+
+    /**
+     * Starts the checkpoint journal of a run.
+     * @param run Translation run.
+     * @param resumed Interrupted run being resumed ({@code null} for a new run).
+     * @return {@link TranslationJournal} or {@code null} if the journal cannot be written, the run is then not
+     * resumable.
+     */
+    private TranslationJournal openJournal(final @NonNull TranslationRun run, final TranslationJournal.LastRun resumed)
+    {
+        Map<String, List<String>> paths = new LinkedHashMap<>();
+        List<String> targetPaths;
+        for (BundleSnapshot bundle : run.getBundles())
+        {
+            targetPaths = new ArrayList<>();
+            for (TranslationFile target : bundle.getTargets())
+            {
+                targetPaths.add(getPath(target));
+            }
+            paths.put(getPath(bundle.getSource()), targetPaths);
+        }
+
+        try
+        {
+            return TranslationJournal.start(run.getJournalPath(), paths, resumed);
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn("Cannot write the translation checkpoint journal", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the path of the checkpoint journal of a new run.
+     * @param project Project.
+     * @return Journal path.
+     */
+    private static Path newJournalPath(final @NonNull Project project)
+    {
+        return RBTStorage.getProjectDirectory(project).resolve(JOURNAL_DIRECTORY_NAME).resolve(UUID.randomUUID() + JOURNAL_EXTENSION);
+    }
+
+    /**
+     * Returns the checkpoint journals of the interrupted runs of a project, the journals of the runs in progress are
+     * excluded.
+     * @param project Project.
+     * @return Journal paths.
+     */
+    private List<Path> getResumableJournals(final @NonNull Project project)
+    {
+        Path directory = RBTStorage.getProjectDirectory(project).resolve(JOURNAL_DIRECTORY_NAME);
+        if (!Files.isDirectory(directory))
+        {
+            return Collections.emptyList();
+        }
+
+        Set<Path> active = new HashSet<>();
+        for (TranslationRun run : runs)
+        {
+            active.add(run.getJournalPath());
+        }
+
+        List<Path> journals = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + JOURNAL_EXTENSION))
+        {
+            for (Path file : files)
+            {
+                if (!active.contains(file))
                 {
-                    count += 1;
+                    journals.add(file);
                 }
             }
         }
+        catch (IOException e)
+        {
+            LOGGER.warn("Cannot list the translation checkpoint journals", e);
+        }
 
-        return count;
+        return journals;
     }
-}
 
+    /**
+     * Returns the path identifying a translation file.
+     * @param file Translation file.
+     * @return File path.
+     */
+    private String getPath(final @NonNull TranslationFile file)
+    {
+        return file.getFile().getVirtualFile().getPath();
+    }
+
+    /**
+     * Returns the pooled HTTP client, creating it on first use.
+     * @return {@link TranslationHttpClient}.
+     */
+    private synchronized TranslationHttpClient getHttpClient()
+    {
+        if (httpClient == null)
+        {
+            RBTSettings settings = RBTSettings.getInstance();
+            httpClient = new TranslationHttpClient(
+                    settings.getMaxConnections(),
+                    settings.getMaxConnectionsPerRoute(),
+                    settings.getKeepAliveSeconds(),
+                    settings.getIdleEvictionSeconds());
+        }
+
+        return httpClient;
+    }
+
+    /**
+     * Returns the non-blocking HTTP client, HTTP/2 is used when the provider supports it so the in-flight requests
+     * are multiplexed on a few connections.
+     * @return Non-blocking HTTP client.
+     */
+    private synchronized HttpClient getAsyncHttpClient()
+    {
+        if (asyncHttpClient == null)
+        {
+            asyncHttpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .connectTimeout(Duration.ofSeconds(ASYNC_CONNECT_TIMEOUT))
+                    .executor(AppExecutorUtil.getAppExecutorService())
+                    .build();
+        }
+
+        return asyncHttpClient;
+    }
+
+    /**
+     * Returns the rate limiter of a translation provider, creating it on first use.
+     * @param provider Translation provider.
+     * @return {@link TranslationRateLimiter}.
+     */
+    private synchronized TranslationRateLimiter getRateLimiter(final @NonNull ITranslationProvider provider)
+    {
+        return rateLimiters.computeIfAbsent(provider.getId(), id -> new TranslationRateLimiter(provider.getRequestsPerSecond(), provider.getRequestsBurst()));
+    }
+
+    /**
+     * Returns the translation providers contributed to the {@link ITranslationProvider#EP_NAME} extension point.
+     * @return Translation providers.
+     */
+    public static List<ITranslationProvider> getProviders()
+    {
+        return ITranslationProvider.EP_NAME.getExtensionList();
+    }
+
+    /**
+     * Returns a translation provider given its identifier.
+     * @param id Provider identifier.
+     * @return {@link ITranslationProvider}, the {@code Google Translate} provider if there is no such provider.
+     */
+    public static ITranslationProvider getProvider(final String id)
+    {
+        for (ITranslationProvider candidate : getProviders())
+        {
+            if (candidate.getId().equals(id))
+            {
+                return candidate;
+            }
+        }
+
+        return new GoogleTranslationProvider();
+    }
+
+    /**
+     * Shuts down the pooled HTTP client when the project is closed.
+     */
+    @Override
+    public synchronized void dispose()
+    {
+        if (httpClient != null)
+        {
+            try
+            {
+                httpClient.close();
+            }
+            catch (IOException e)
+            {
+                LOGGER.warn("Cannot close the translation HTTP client", e);
+            }
+            httpClient = null;
+        }
+
+        // The non-blocking HTTP client releases its connections once no longer referenced.
+        asyncHttpClient = null;
+    }
+
+    /**
+     * Reports the failure of a non-blocking read action, a cancelled read action is not reported.
+     * @param project Project.
+     * @param message Failure message.
+     * @param error Failure cause.
+     */
+    private static void reportFailure(final @NonNull Project project, final @NonNull String message, final @NonNull Throwable error)
+    {
+        if (error instanceof PropertiesModelException)
+        {
+            RBTMessageNotifier.error(project, String.format("%s due to: %s", message, error.getMessage()));
+        }
+        else if (!(error instanceof CancellationException) && !(error instanceof ProcessCanceledException))
+        {
+            LOGGER.error(message, error);
+        }
+    }
+
+    /**
+     * Models of the resource bundles of an interrupted run rebuilt in a read action, with the source paths of the
+     * bundles which cannot be rebuilt.
+     */
+    private static final class ResumedRun
+    {
+        /**
+         * Models of the resource bundles to translate again.
+         */
+        private final List<PropertiesModel> models = new ArrayList<>();
+
+        /**
+         * Source file paths of the resource bundles no longer existing.
+         */
+        private final List<String> missing = new ArrayList<>();
+    }
+
+    /**
+     * Translation processes of a run created in a read action, with the stale keys to report and the baseline
+     * fingerprints to record per target file.
+     */
+    private static final class PreparedRun
+    {
+        /**
+         * Translation processes requiring a translation.
+         */
+        private final List<ITranslationProcess> processes = new ArrayList<>();
+
+        /**
+         * Target translation files whose entries are all translated.
+         */
+        private final List<TranslationFile> upToDate = new ArrayList<>();
+
+        /**
+         * Keys whose source value changed since their translation per target translation file.
+         */
+        private final Map<TranslationFile, Set<String>> staleKeys = new LinkedHashMap<>();
+
+        /**
+         * Source values of the keys without fingerprint per target translation file path.
+         */
+        private final Map<String, Map<String, String>> baselines = new HashMap<>();
+    }
+}
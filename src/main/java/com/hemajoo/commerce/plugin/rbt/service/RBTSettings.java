@@ -0,0 +1,224 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.hemajoo.commerce.plugin.rbt.provider.GoogleTranslationProvider;
+import com.hemajoo.commerce.plugin.rbt.translation.GoogleTranslatorProcessor;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+/**
+ * Represents the persistent settings of the {@code Resource Bundle Translator} plugin.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Service
+@State(name = "RBTSettings", storages = @Storage("resource-bundle-translator.xml"))
+public final class RBTSettings implements PersistentStateComponent<RBTSettings>
+{
+    /**
+     * Identifier of the translation provider used by the runs.
+     */
+    @Getter
+    @Setter
+    private String translationProvider = GoogleTranslationProvider.ID;
+
+    /**
+     * Path of the tab separated glossary file used by the glossary translation provider.
+     */
+    @Getter
+    @Setter
+    private String glossaryPath = "";
+
+    /**
+     * Endpoint of the translation provider API, can be pointed to a local mock translation server.
+     */
+    @Getter
+    @Setter
+    private String endpoint = GoogleTranslatorProcessor.GOOGLE_TRANSLATE_API;
+
+    /**
+     * Maximum number of pooled HTTP connections.
+     */
+    @Getter
+    @Setter
+    private int maxConnections = 20;
+
+    /**
+     * Maximum number of pooled HTTP connections per route (host).
+     */
+    @Getter
+    @Setter
+    private int maxConnectionsPerRoute = 10;
+
+    /**
+     * Duration (in seconds) a pooled HTTP connection is kept alive when the server does not specify it.
+     */
+    @Getter
+    @Setter
+    private int keepAliveSeconds = 30;
+
+    /**
+     * Duration (in seconds) after which an idle pooled HTTP connection is evicted.
+     */
+    @Getter
+    @Setter
+    private int idleEvictionSeconds = 60;
+
+    /**
+     * Maximum number of request entries sent in a single translation request.
+     */
+    @Getter
+    @Setter
+    private int batchMaxEntries = 50;
+
+    /**
+     * Maximum length of the encoded text sent in a single translation request.
+     */
+    @Getter
+    @Setter
+    private int batchMaxLength = 4000;
+
+    /**
+     * Maximum number of translation processes (target files) translated in parallel by the translation provider.
+     */
+    @Getter
+    @Setter
+    private int maxParallelProcesses = 4;
+
+    /**
+     * Are the translation requests sent asynchronously from a single background task? If not, one worker thread is
+     * used per target file translated in parallel.
+     */
+    @Getter
+    @Setter
+    private boolean asyncRequests = true;
+
+    /**
+     * Maximum number of asynchronous translation requests in flight at the same time.
+     */
+    @Getter
+    @Setter
+    private int maxInFlightRequests = 8;
+
+    /**
+     * Are the translated entries written to the target files while a run is in progress? If not, the target files
+     * are only written once the run is finished.
+     */
+    @Getter
+    @Setter
+    private boolean progressiveSave = false;
+
+    /**
+     * Number of translated entries triggering a write of the target files when saving progressively.
+     */
+    @Getter
+    @Setter
+    private int progressiveSaveEntries = 200;
+
+    /**
+     * Delay (in seconds) triggering a write of the target files when saving progressively.
+     */
+    @Getter
+    @Setter
+    private int progressiveSaveSeconds = 30;
+
+    /**
+     * Is the translation memory consulted before sending a translation request?
+     */
+    @Getter
+    @Setter
+    private boolean translationMemoryEnabled = true;
+
+    /**
+     * Maximum number of entries kept by the translation memory.
+     */
+    @Getter
+    @Setter
+    private int translationMemoryMaxEntries = 100000;
+
+    /**
+     * Are the target entries whose source value changed since their translation translated again? If not, they are
+     * only reported.
+     */
+    @Getter
+    @Setter
+    private boolean retranslateStaleEntries = true;
+
+    /**
+     * Maximum number of requests per second sent to the translation provider.
+     */
+    @Getter
+    @Setter
+    private double requestsPerSecond = 5;
+
+    /**
+     * Maximum number of requests sent in a burst to the translation provider.
+     */
+    @Getter
+    @Setter
+    private int requestsBurst = 5;
+
+    /**
+     * Maximum number of retries of a throttled or failed request.
+     */
+    @Getter
+    @Setter
+    private int maxRetries = 5;
+
+    /**
+     * Base delay (in milliseconds) of the exponential backoff between two retries.
+     */
+    @Getter
+    @Setter
+    private long retryBaseDelay = 500;
+
+    /**
+     * Maximum delay (in milliseconds) between two retries.
+     */
+    @Getter
+    @Setter
+    private long retryMaxDelay = 30000;
+
+    /**
+     * Returns the settings instance.
+     * @return {@link RBTSettings}.
+     */
+    public static RBTSettings getInstance()
+    {
+        return ApplicationManager.getApplication().getService(RBTSettings.class);
+    }
+
+    @Override
+    public RBTSettings getState()
+    {
+        return this;
+    }
+
+    @Override
+    public void loadState(final @NonNull RBTSettings state)
+    {
+        XmlSerializerUtil.copyBean(state, this);
+    }
+}
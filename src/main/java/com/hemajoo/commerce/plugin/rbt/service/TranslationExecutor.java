@@ -0,0 +1,157 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationBatch;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.TranslationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Executes a set of translation processes concurrently on a bounded pool of workers.
+ * <br>
+ * Each translation process is executed by a single worker, a failing translation process does not abort the other
+ * ones and is reported in the {@link #getFailures()} map. A translation process is marked as translated as soon as
+ * its worker completed, so it is saved even if the execution is cancelled afterwards.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationExecutor extends AbstractTranslationExecutor
+{
+    /**
+     * Delay (in milliseconds) between two checks of the progress indicator cancellation while waiting for the workers.
+     */
+    private static final long CANCELLATION_POLL_DELAY = 100;
+
+    /**
+     * Executor service running the workers.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new translation executor.
+     * @param processes Translation processes to execute.
+     * @param executor Executor service running the workers. Its number of threads bounds the parallelism.
+     */
+    public TranslationExecutor(final @NonNull List<ITranslationProcess> processes, final @NonNull ExecutorService executor)
+    {
+        super(processes);
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(final @NonNull ProgressIndicator indicator)
+    {
+        start();
+
+        List<Future<?>> futures = new ArrayList<>();
+        try
+        {
+            for (ITranslationProcess process : getProcesses())
+            {
+                futures.add(executor.submit(() -> execute(process, indicator)));
+            }
+
+            for (Future<?> future : futures)
+            {
+                await(future, indicator);
+            }
+
+            failShared();
+        }
+        finally
+        {
+            for (Future<?> future : futures)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Executes a single translation process.
+     * @param process Translation process.
+     * @param indicator Progress indicator bar.
+     */
+    private void execute(final @NonNull ITranslationProcess process, final @NonNull ProgressIndicator indicator)
+    {
+        try
+        {
+            if (process.requireProcessing())
+            {
+                for (TranslationBatch batch : partition(process, indicator))
+                {
+                    indicator.checkCanceled();
+                    translate(process, batch);
+                    translated(indicator, batch.size());
+                }
+
+                process.hasBeenTranslated();
+            }
+        }
+        catch (TranslationException | RuntimeException e)
+        {
+            if (e instanceof ProcessCanceledException)
+            {
+                throw (ProcessCanceledException) e;
+            }
+
+            fail(process, e);
+        }
+    }
+
+    /**
+     * Waits for the completion of a worker while checking for the cancellation of the progress indicator.
+     * @param future Worker future.
+     * @param indicator Progress indicator bar.
+     */
+    private void await(final @NonNull Future<?> future, final @NonNull ProgressIndicator indicator)
+    {
+        while (true)
+        {
+            indicator.checkCanceled();
+            try
+            {
+                future.get(CANCELLATION_POLL_DELAY, TimeUnit.MILLISECONDS);
+                return;
+            }
+            catch (TimeoutException e)
+            {
+                // Worker still running, check again for the cancellation.
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(e);
+            }
+            catch (ExecutionException e)
+            {
+                if (e.getCause() instanceof ProcessCanceledException)
+                {
+                    throw (ProcessCanceledException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.hemajoo.commerce.plugin.rbt.model.I18nGoogleTranslationRequest;
+import com.hemajoo.commerce.plugin.rbt.translation.ITranslationCheckpoint;
+import com.hemajoo.commerce.plugin.rbt.translation.ITranslationListener;
+import com.hemajoo.commerce.plugin.rbt.util.RBTStorage;
+import com.intellij.openapi.diagnostic.Logger;
+import lombok.Getter;
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Represents the checkpoint journal of a translation run, appended each time a request entry has been translated so
+ * an interrupted run (cancelled, failed or IDE closed) can be resumed without translating again the completed
+ * entries.
+ * <br>
+ * The journal starts with the source file and the target files of each bundle of the run, followed by one record per translated
+ * request entry: target file, key, source text and translated text. A record truncated or corrupted by a crash is ignored.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationJournal implements ITranslationListener, ITranslationCheckpoint, Closeable
+{
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getInstance(TranslationJournal.class);
+
+    /**
+     * Journal format version.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Translations (source text and translated text) of the resumed run per target file and key.
+     */
+    private final Map<List<String>, String[]> resumed;
+
+    /**
+     * Journal output stream ({@code null} once closed).
+     */
+    private DataOutputStream output;
+
+    /**
+     * Creates a new journal.
+     * @param output Journal output stream, positioned after the header.
+     * @param resumed Translations of the resumed run per target file and key.
+     */
+    private TranslationJournal(final @NonNull DataOutputStream output, final @NonNull Map<List<String>, String[]> resumed)
+    {
+        this.output = output;
+        this.resumed = resumed;
+    }
+
+    /**
+     * Starts the journal of a new run, replacing the existing one.
+     * <br>
+     * The records of the resumed run are carried over to the new journal, which is written to a temporary file then
+     * moved over the existing one, so they are not lost if the resumed run is interrupted again.
+     * @param file Journal file.
+     * @param bundles Paths of the target files per path of the source file, for each bundle of the run.
+     * @param resumed Last run being resumed ({@code null} if none).
+     * @return {@link TranslationJournal}.
+     * @throws IOException Thrown in case the journal cannot be created.
+     */
+    public static TranslationJournal start(final @NonNull Path file, final @NonNull Map<String, List<String>> bundles, final LastRun resumed) throws IOException
+    {
+        Map<List<String>, String[]> records = resumed != null ? resumed.records : Collections.emptyMap();
+
+        Files.createDirectories(file.getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary))))
+        {
+            output.writeInt(VERSION);
+            output.writeInt(bundles.size());
+            for (Map.Entry<String, List<String>> bundle : bundles.entrySet())
+            {
+                RBTStorage.writeString(output, bundle.getKey());
+                output.writeInt(bundle.getValue().size());
+                for (String path : bundle.getValue())
+                {
+                    RBTStorage.writeString(output, path);
+                }
+            }
+
+            for (Map.Entry<List<String>, String[]> record : records.entrySet())
+            {
+                write(output, record.getKey().get(0), record.getKey().get(1), record.getValue()[0], record.getValue()[1]);
+            }
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return new TranslationJournal(new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND))), records);
+    }
+
+    /**
+     * Reads the journal of the last run.
+     * @param file Journal file.
+     * @return {@link LastRun} or {@code null} if there is no journal.
+     * @throws IOException Thrown in case the journal cannot be read.
+     */
+    public static LastRun read(final @NonNull Path file) throws IOException
+    {
+        if (!Files.isRegularFile(file))
+        {
+            return null;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if (input.readInt() != VERSION)
+            {
+                return null;
+            }
+
+            Map<String, List<String>> bundles = new LinkedHashMap<>();
+            int bundleCount = input.readInt();
+            for (int i = 0; i < bundleCount; i++)
+            {
+                String sourcePath = RBTStorage.readString(input);
+                int count = input.readInt();
+                List<String> targetPaths = new ArrayList<>();
+                for (int j = 0; j < count; j++)
+                {
+                    targetPaths.add(RBTStorage.readString(input));
+                }
+                bundles.put(sourcePath, targetPaths);
+            }
+
+            Map<List<String>, String[]> records = new HashMap<>();
+            try
+            {
+                while (true)
+                {
+                    String target = RBTStorage.readString(input);
+                    String key = RBTStorage.readString(input);
+                    String source = RBTStorage.readString(input);
+                    String translation = RBTStorage.readString(input);
+                    records.put(List.of(target, key), new String[] { source, translation });
+                }
+            }
+            catch (IOException e)
+            {
+                // End of the journal, possibly in the middle of a record written or corrupted when the run has been
+                // interrupted.
+            }
+
+            return new LastRun(bundles, records);
+        }
+    }
+
+    /**
+     * Deletes the journal of the last run.
+     * @param file Journal file.
+     */
+    public static void delete(final @NonNull Path file)
+    {
+        try
+        {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn("Cannot delete the translation journal: " + file, e);
+        }
+    }
+
+    @Override
+    public String recall(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry)
+    {
+        String[] record = resumed.get(List.of(getTargetPath(process), entry.getKey()));
+        return record != null && record[0].equals(entry.getSource()) ? record[1] : null;
+    }
+
+    @Override
+    public synchronized void onTranslated(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry, final @NonNull String translation)
+    {
+        if (output == null)
+        {
+            return;
+        }
+
+        // The records recalled from the resumed run are already in the journal.
+        String target = getTargetPath(process);
+        String[] record = resumed.get(List.of(target, entry.getKey()));
+        if (record != null && record[0].equals(entry.getSource()) && record[1].equals(translation))
+        {
+            return;
+        }
+
+        try
+        {
+            write(output, target, entry.getKey(), entry.getSource(), translation);
+            output.flush();
+        }
+        catch (IOException e)
+        {
+            // The run goes on without checkpoints rather than failing.
+            LOGGER.warn("Cannot write the translation journal, checkpoints are disabled for this run", e);
+            close();
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (output != null)
+        {
+            try
+            {
+                output.close();
+            }
+            catch (IOException e)
+            {
+                LOGGER.warn("Cannot close the translation journal", e);
+            }
+            output = null;
+        }
+    }
+
+    /**
+     * Writes a record of a translated request entry.
+     * @param output Journal output stream.
+     * @param target Target file path.
+     * @param key Key of the request entry.
+     * @param source Source text.
+     * @param translation Translated text.
+     * @throws IOException Thrown in case the record cannot be written.
+     */
+    private static void write(final @NonNull DataOutputStream output, final @NonNull String target, final @NonNull String key, final @NonNull String source, final @NonNull String translation) throws IOException
+    {
+        RBTStorage.writeString(output, target);
+        RBTStorage.writeString(output, key);
+        RBTStorage.writeString(output, source);
+        RBTStorage.writeString(output, translation);
+    }
+
+    /**
+     * Returns the path of the target file of a translation process.
+     * @param process Translation process.
+     * @return Target file path.
+     */
+    private static String getTargetPath(final @NonNull ITranslationProcess process)
+    {
+        return ((I18nGoogleTranslationRequest) process.getRequest()).getTarget().getFile().getVirtualFile().getPath();
+    }
+
+    /**
+     * Represents the content of the journal of the last run.
+     */
+    public static final class LastRun
+    {
+        /**
+         * Paths of the target files per path of the source file, for each bundle of the run.
+         */
+        @Getter
+        private final Map<String, List<String>> bundles;
+
+        /**
+         * Translations (source text and translated text) per target file and key.
+         */
+        private final Map<List<String>, String[]> records;
+
+        private LastRun(final @NonNull Map<String, List<String>> bundles, final @NonNull Map<List<String>, String[]> records)
+        {
+            this.bundles = bundles;
+            this.records = records;
+        }
+
+        /**
+         * Returns the number of request entries translated by the run.
+         * @return Number of translated request entries.
+         */
+        public int getCount()
+        {
+            return records.size();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationMemory;
+import com.hemajoo.commerce.plugin.rbt.util.RBTStorage;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.IOException;
+
+/**
+ * Application service owning the translation memory shared by all the projects.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Service
+public final class TranslationMemoryService implements Disposable
+{
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getInstance(TranslationMemoryService.class);
+
+    /**
+     * Translation memory storage file name.
+     */
+    private static final String FILE_NAME = "translation-memory.bin";
+
+    /**
+     * Translation memory (loaded lazily on first access).
+     */
+    private final TranslationMemory memory;
+
+    /**
+     * Creates a new translation memory service.
+     */
+    public TranslationMemoryService()
+    {
+        memory = new TranslationMemory(
+                RBTStorage.getApplicationDirectory().resolve(FILE_NAME),
+                RBTSettings.getInstance().getTranslationMemoryMaxEntries());
+    }
+
+    /**
+     * Returns the translation memory service instance.
+     * @return {@link TranslationMemoryService}.
+     */
+    public static TranslationMemoryService getInstance()
+    {
+        return ApplicationManager.getApplication().getService(TranslationMemoryService.class);
+    }
+
+    /**
+     * Returns the translation memory.
+     * @return {@link TranslationMemory} or {@code null} if the translation memory is disabled.
+     */
+    public TranslationMemory getMemory()
+    {
+        return RBTSettings.getInstance().isTranslationMemoryEnabled() ? memory : null;
+    }
+
+    /**
+     * Saves the translation memory.
+     */
+    public void save()
+    {
+        try
+        {
+            memory.save();
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn("Cannot save the translation memory", e);
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        save();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.hemajoo.commerce.plugin.rbt.model.BundleSnapshot;
+import com.hemajoo.commerce.plugin.rbt.provider.ITranslationProvider;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationMetrics;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcessor;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the state of a translation run of the {@link RBTService}. Each run owns its snapshots, processor,
+ * processes, metrics and checkpoint journal, so several runs can be in progress at the same time.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class TranslationRun
+{
+    /**
+     * Snapshots of the resource bundles translated by the run.
+     */
+    @Getter
+    private final List<BundleSnapshot> bundles;
+
+    /**
+     * Translation provider of the run.
+     */
+    @Getter
+    private final ITranslationProvider provider;
+
+    /**
+     * Translation processor shared by the translation processes of the run.
+     */
+    @Getter
+    private final ITranslationProcessor processor;
+
+    /**
+     * Metrics of the run.
+     */
+    @Getter
+    private final TranslationMetrics metrics;
+
+    /**
+     * Checkpoint journal file of the run.
+     */
+    @Getter
+    private final Path journalPath;
+
+    /**
+     * Translation processes, set once the run is prepared.
+     */
+    @Getter
+    private volatile List<ITranslationProcess> processes = Collections.emptyList();
+
+    /**
+     * Translation processes aborted by the run.
+     */
+    @Getter
+    private final Set<ITranslationProcess> failures = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Writer of the translated entries while the run is in progress ({@code null} if not saving progressively).
+     */
+    @Getter
+    @Setter
+    private volatile ProgressiveDocumentWriter writer;
+
+    /**
+     * Checkpoint journal of the run ({@code null} if it cannot be written).
+     */
+    @Getter
+    @Setter
+    private volatile TranslationJournal journal;
+
+    /**
+     * Has the run translated all its entries?
+     */
+    @Getter
+    @Setter
+    private volatile boolean completed;
+
+    /**
+     * Duration (in nanoseconds) of the preparation of the run.
+     */
+    @Getter
+    @Setter
+    private volatile long prepareTime;
+
+    /**
+     * Duration (in nanoseconds) of the translation of the run.
+     */
+    @Getter
+    @Setter
+    private volatile long executeTime;
+
+    /**
+     * Creates a new translation run.
+     * @param bundles Snapshots of the resource bundles to translate.
+     * @param provider Translation provider.
+     * @param processor Translation processor.
+     * @param metrics Metrics of the run.
+     * @param journalPath Checkpoint journal file.
+     */
+    TranslationRun(final @NonNull List<BundleSnapshot> bundles, final @NonNull ITranslationProvider provider, final @NonNull ITranslationProcessor processor, final @NonNull TranslationMetrics metrics, final @NonNull Path journalPath)
+    {
+        this.bundles = List.copyOf(bundles);
+        this.provider = provider;
+        this.processor = processor;
+        this.metrics = metrics;
+        this.journalPath = journalPath;
+    }
+
+    /**
+     * Sets the translation processes of the run.
+     * @param processes Translation processes.
+     */
+    void setProcesses(final @NonNull List<ITranslationProcess> processes)
+    {
+        this.processes = List.copyOf(processes);
+    }
+
+    /**
+     * Returns the number of translated request entries.
+     * @return Number of translated request entries.
+     */
+    int getTranslatedCount()
+    {
+        int count = 0;
+
+        for (ITranslationProcess process : processes)
+        {
+            for (ITranslationRequestEntry entry : process.getRequest().getEntries())
+            {
+                if (entry.getTranslationTimeStamp() != null)
+                {
+                    count += 1;
+                }
+            }
+        }
+
+        return count;
+    }
+}
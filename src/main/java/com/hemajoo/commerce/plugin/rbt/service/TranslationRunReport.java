@@ -0,0 +1,225 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.google.gson.stream.JsonWriter;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationMetrics;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the performance report of a translation run, a snapshot of its {@link TranslationMetrics} and of the
+ * duration of its phases.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationRunReport
+{
+    /**
+     * Date of the end of the run.
+     */
+    @Getter
+    private final LocalDateTime date = LocalDateTime.now();
+
+    /**
+     * Name of the translation provider.
+     */
+    @Getter
+    private final String provider;
+
+    /**
+     * Number of target files translated.
+     */
+    @Getter
+    private final int files;
+
+    /**
+     * Number of request entries translated.
+     */
+    @Getter
+    private final int entries;
+
+    /**
+     * Has the run translated all its entries?
+     */
+    @Getter
+    private final boolean completed;
+
+    /**
+     * Duration (in nanoseconds) of the preparation of the run.
+     */
+    @Getter
+    private final long prepareTime;
+
+    /**
+     * Duration (in nanoseconds) of the translation of the run.
+     */
+    @Getter
+    private final long executeTime;
+
+    /**
+     * Duration (in nanoseconds) of the save of the translated documents.
+     */
+    @Getter
+    private final long saveTime;
+
+    /**
+     * Metrics of the run.
+     */
+    @Getter
+    private final TranslationMetrics metrics;
+
+    /**
+     * Creates a new run report.
+     * @param provider Name of the translation provider.
+     * @param files Number of target files translated.
+     * @param entries Number of request entries translated.
+     * @param completed Has the run translated all its entries?
+     * @param prepareTime Duration (in nanoseconds) of the preparation.
+     * @param executeTime Duration (in nanoseconds) of the translation.
+     * @param saveTime Duration (in nanoseconds) of the save.
+     * @param metrics Metrics of the run.
+     */
+    public TranslationRunReport(final @NonNull String provider, final int files, final int entries, final boolean completed, final long prepareTime, final long executeTime, final long saveTime, final @NonNull TranslationMetrics metrics)
+    {
+        this.provider = provider;
+        this.files = files;
+        this.entries = entries;
+        this.completed = completed;
+        this.prepareTime = prepareTime;
+        this.executeTime = executeTime;
+        this.saveTime = saveTime;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the translation throughput of the run.
+     * @return Number of request entries translated per second.
+     */
+    public double getEntriesPerSecond()
+    {
+        return executeTime == 0 ? 0 : entries * (double) TimeUnit.SECONDS.toNanos(1) / executeTime;
+    }
+
+    /**
+     * Returns the items of the report in display order.
+     * @return Formatted values per label.
+     */
+    public Map<String, String> getItems()
+    {
+        Map<String, String> items = new LinkedHashMap<>();
+
+        items.put("Date", date.toString());
+        items.put("Provider", provider);
+        items.put("Completed", completed ? "yes" : "no");
+        items.put("Files translated", Integer.toString(files));
+        items.put("Entries translated", Integer.toString(entries));
+        items.put("Entries per second", String.format("%.1f", getEntriesPerSecond()));
+        items.put("Prepare time", formatTime(prepareTime));
+        items.put("Translate time", formatTime(executeTime));
+        items.put("Save time", formatTime(saveTime));
+        items.put("EDT write time", String.format("%s (%d writes)", formatTime(metrics.getEdtWriteTime()), metrics.getEdtWrites()));
+        items.put("Requests", Long.toString(metrics.getRequests()));
+        items.put("Request latency mean", formatTime(metrics.getLatencyMean()));
+        items.put("Request latency p50", formatTime(metrics.getLatencyPercentile(50)));
+        items.put("Request latency p95", formatTime(metrics.getLatencyPercentile(95)));
+        items.put("Request latency p99", formatTime(metrics.getLatencyPercentile(99)));
+        items.put("Retries", String.format("%d (%d throttled)", metrics.getRetries(), metrics.getThrottled()));
+        items.put("Bytes sent", Long.toString(metrics.getBytesSent()));
+        items.put("Bytes received", Long.toString(metrics.getBytesReceived()));
+        items.put("Translation memory hits", Long.toString(metrics.getMemoryHits()));
+        items.put("Checkpoint hits", Long.toString(metrics.getCheckpointHits()));
+        items.put("Duplicate hits", Long.toString(metrics.getDuplicateHits()));
+
+        return items;
+    }
+
+    /**
+     * Writes the report as JSON, durations are given in milliseconds.
+     * @param writer Writer.
+     * @throws IOException Thrown in case an error occurred while writing the report.
+     */
+    public void toJson(final @NonNull Writer writer) throws IOException
+    {
+        try (JsonWriter json = new JsonWriter(writer))
+        {
+            json.setIndent("  ");
+            json.beginObject();
+            json.name("date").value(date.toString());
+            json.name("provider").value(provider);
+            json.name("completed").value(completed);
+            json.name("files").value(files);
+            json.name("entries").value(entries);
+            json.name("entriesPerSecond").value(getEntriesPerSecond());
+
+            json.name("timings").beginObject()
+                    .name("prepare").value(toMillis(prepareTime))
+                    .name("translate").value(toMillis(executeTime))
+                    .name("save").value(toMillis(saveTime))
+                    .name("edtWrite").value(toMillis(metrics.getEdtWriteTime()))
+                    .name("edtWrites").value(metrics.getEdtWrites())
+                    .endObject();
+
+            json.name("requests").beginObject()
+                    .name("count").value(metrics.getRequests())
+                    .name("retries").value(metrics.getRetries())
+                    .name("throttled").value(metrics.getThrottled())
+                    .name("bytesSent").value(metrics.getBytesSent())
+                    .name("bytesReceived").value(metrics.getBytesReceived())
+                    .name("latencyMean").value(toMillis(metrics.getLatencyMean()))
+                    .name("latencyP50").value(toMillis(metrics.getLatencyPercentile(50)))
+                    .name("latencyP95").value(toMillis(metrics.getLatencyPercentile(95)))
+                    .name("latencyP99").value(toMillis(metrics.getLatencyPercentile(99)))
+                    .endObject();
+
+            json.name("reused").beginObject()
+                    .name("memory").value(metrics.getMemoryHits())
+                    .name("checkpoint").value(metrics.getCheckpointHits())
+                    .name("duplicate").value(metrics.getDuplicateHits())
+                    .endObject();
+
+            json.endObject();
+        }
+    }
+
+    /**
+     * Formats a duration.
+     * @param nanos Duration (in nanoseconds).
+     * @return Formatted duration in milliseconds.
+     */
+    private static String formatTime(final long nanos)
+    {
+        return String.format("%.1f ms", toMillis(nanos));
+    }
+
+    /**
+     * Converts a duration to milliseconds.
+     * @param nanos Duration (in nanoseconds).
+     * @return Duration (in milliseconds).
+     */
+    private static double toMillis(final long nanos)
+    {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import lombok.NonNull;
+import lombok.Setter;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Represents a translation processor translating the request entries from a {@link TranslationGlossary}, without
+ * sending any request. The request entries missing from the glossary are left untranslated.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class GlossaryTranslatorProcessor implements IObservableTranslationProcessor
+{
+    /**
+     * Glossary.
+     */
+    private final TranslationGlossary glossary;
+
+    /**
+     * Listeners notified of each translated request entry.
+     */
+    private final List<ITranslationListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Checkpoint of the resumed run consulted before the glossary ({@code null} if none).
+     */
+    @Setter
+    private volatile ITranslationCheckpoint checkpoint;
+
+    /**
+     * Creates a new glossary translation processor.
+     * @param glossary Glossary.
+     */
+    public GlossaryTranslatorProcessor(final @NonNull TranslationGlossary glossary)
+    {
+        this.glossary = glossary;
+    }
+
+    @Override
+    public void addListener(final @NonNull ITranslationListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void translate(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry)
+    {
+        ITranslationCheckpoint resumed = checkpoint;
+        String translation = resumed != null ? resumed.recall(process, entry) : null;
+
+        if (translation == null)
+        {
+            translation = glossary.get(
+                    process.getRequest().getSourceLocale(),
+                    process.getRequest().getTargetLocale(),
+                    entry.getSource());
+            if (translation == null)
+            {
+                return;
+            }
+
+            // The glossary holds the stripped texts.
+            String source = entry.getSource();
+            translation = source.substring(0, source.length() - source.stripLeading().length())
+                    + translation
+                    + source.substring(source.stripTrailing().length());
+        }
+
+        entry.setResult(new GoogleTranslationResult(entry.getSource(), translation));
+        for (ITranslationListener listener : listeners)
+        {
+            listener.onTranslated(process, entry, translation);
+        }
+    }
+}
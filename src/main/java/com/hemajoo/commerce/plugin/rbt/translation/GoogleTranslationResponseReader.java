@@ -0,0 +1,134 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationResultSentence;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of the {@code Google Translate API} responses.
+ * <br>
+ * The translated sentences are read directly from the response stream without building any intermediate string or
+ * JSON tree, the unknown members being skipped.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class GoogleTranslationResponseReader
+{
+    private GoogleTranslationResponseReader()
+    {
+        // Avoid direct instantiation!
+    }
+
+    /**
+     * Reads a translation result from a JSON response.
+     * @param reader Response reader.
+     * @return {@link GoogleTranslationResult}.
+     * @throws IOException Thrown in case an error occurred while reading the response or if the response is malformed.
+     */
+    public static GoogleTranslationResult read(final @NonNull Reader reader) throws IOException
+    {
+        GoogleTranslationResult result = new GoogleTranslationResult();
+        result.setSentences(new ArrayList<>());
+
+        try (JsonReader json = new JsonReader(reader))
+        {
+            json.beginObject();
+            while (json.hasNext())
+            {
+                switch (json.nextName())
+                {
+                    case "sentences":
+                        readSentences(json, result.getSentences());
+                        break;
+
+                    case "src":
+                        result.setSource(json.nextString());
+                        break;
+
+                    case "confidence":
+                        result.setConfidence(json.nextDouble());
+                        break;
+
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+        }
+        catch (IllegalStateException | NumberFormatException e)
+        {
+            throw new IOException("Malformed translation response", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the translated sentences.
+     * @param json JSON reader.
+     * @param sentences List the sentences are added to.
+     * @throws IOException Thrown in case an error occurred while reading the sentences.
+     */
+    private static void readSentences(final @NonNull JsonReader json, final @NonNull List<ITranslationResultSentence> sentences) throws IOException
+    {
+        json.beginArray();
+        while (json.hasNext())
+        {
+            GoogleTranslationResultSentence sentence = new GoogleTranslationResultSentence();
+
+            json.beginObject();
+            while (json.hasNext())
+            {
+                switch (json.nextName())
+                {
+                    case "trans":
+                        sentence.setTranslation(json.nextString());
+                        break;
+
+                    case "orig":
+                        sentence.setOriginal(json.nextString());
+                        break;
+
+                    case "backend":
+                        sentence.setBackend(json.nextInt());
+                        break;
+
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+
+            // Sentences without translation (such as transliterations) are ignored.
+            if (sentence.getTranslation() != null)
+            {
+                sentences.add(sentence);
+            }
+        }
+        json.endArray();
+    }
+}
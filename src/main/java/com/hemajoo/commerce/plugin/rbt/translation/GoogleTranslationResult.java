@@ -18,6 +18,7 @@ package com.hemajoo.commerce.plugin.rbt.translation;
 
 import com.google.gson.annotations.SerializedName;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.Setter;
 import org.ressec.core.extension.i18n.translation.engine.ITranslationResult;
 import org.ressec.core.extension.i18n.translation.engine.ITranslationResultSentence;
@@ -64,6 +65,20 @@ public final class GoogleTranslationResult implements ITranslationResult
         // Required for JSON serialization.
     }
 
+    /**
+     * Creates a new Google translation result made of a single sentence.
+     * @param original Original text.
+     * @param translation Translated text.
+     */
+    public GoogleTranslationResult(final @NonNull String original, final @NonNull String translation)
+    {
+        GoogleTranslationResultSentence sentence = new GoogleTranslationResultSentence();
+        sentence.setOriginal(original);
+        sentence.setTranslation(translation);
+
+        sentences = List.of(sentence);
+    }
+
     /**
      * Return the translation result.
      * @return Translation result.
@@ -16,51 +16,168 @@
  */
 package com.hemajoo.commerce.plugin.rbt.translation;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import io.gsonfire.GsonFireBuilder;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.util.EntityUtils;
 import org.ressec.core.extension.i18n.translation.engine.*;
-import org.ressec.core.foundation.helper.GsonHelper;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Represents a Google translation processor.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
-public final class GoogleTranslatorProcessor implements ITranslationProcessor
+public final class GoogleTranslatorProcessor implements IAsyncTranslationProcessor, IObservableTranslationProcessor
 {
-    private static final String GOOGLE_TRANSLATE_API = "https://translate.googleapis.com/translate_a/t?client=dict-chrome-ex&sl=";
+    /**
+     * Google translation API endpoint.
+     */
+    public static final String GOOGLE_TRANSLATE_API = "https://translate.googleapis.com/translate_a/t";
+
+    /**
+     * Query of the translation requests.
+     */
+    private static final String GOOGLE_TRANSLATE_QUERY = "?client=dict-chrome-ex&sl=";
+
+    /**
+     * Delimiter used to join the source texts of a batch into a single query. Google preserves line breaks in the
+     * translated text, so the translation can be split back on the same delimiter.
+     */
+    private static final String BATCH_DELIMITER = "\n";
+
+    /**
+     * Encoded length of the batch delimiter in the URL.
+     */
+    private static final int BATCH_DELIMITER_LENGTH = URLEncoder.encode(BATCH_DELIMITER, StandardCharsets.UTF_8).length();
+
+    /**
+     * Translation API endpoint.
+     */
+    private final String endpoint;
+
+    /**
+     * Shared pooled HTTP client.
+     */
+    private final TranslationHttpClient httpClient;
+
+    /**
+     * Shared non-blocking HTTP client used by the asynchronous translations ({@code null} if not supported).
+     */
+    private final HttpClient asyncHttpClient;
+
+    /**
+     * Index of the source texts being translated, the processor being created for each run.
+     */
+    private final TranslationDeduplicator deduplicator = new TranslationDeduplicator();
+
+    /**
+     * Translation processes whose duplicate request entries have been left untranslated by the failure of their leader,
+     * with the cause of the failure.
+     */
+    private final Map<ITranslationProcess, Exception> sharedFailures = new ConcurrentHashMap<>();
+
+    /**
+     * Listeners notified of each translated request entry.
+     */
+    private final List<ITranslationListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Checkpoint of the resumed run consulted before the translation memory ({@code null} if none).
+     */
+    @Setter
+    private volatile ITranslationCheckpoint checkpoint;
+
+    /**
+     * Metrics of the run.
+     */
+    @Getter
+    @Setter
+    private TranslationMetrics metrics = new TranslationMetrics();
 
     /**
-     * Gson builder.
+     * Translation memory consulted before sending any request ({@code null} if disabled).
      */
-    private final Gson gsonBuilder;
+    private final TranslationMemory memory;
+
+    /**
+     * Rate limiter shared by the requests sent to the provider.
+     */
+    private final TranslationRateLimiter rateLimiter;
+
+    /**
+     * Retry policy applied to the throttled or failed requests.
+     */
+    private final TranslationRetryPolicy retryPolicy;
+
+    /**
+     * Maximum number of request entries per batch.
+     */
+    private final int maxBatchEntries;
+
+    /**
+     * Maximum length of the encoded text of a batch.
+     */
+    private final int maxBatchLength;
 
     /**
      * Creates a new Google translation processor.
+     * @param endpoint Translation API endpoint.
+     * @param httpClient Shared pooled HTTP client.
+     * @param asyncHttpClient Shared non-blocking HTTP client ({@code null} to only support the blocking translations).
+     * @param memory Translation memory ({@code null} to disable it).
+     * @param rateLimiter Rate limiter shared by the requests sent to the provider.
+     * @param retryPolicy Retry policy applied to the throttled or failed requests.
+     * @param maxBatchEntries Maximum number of request entries per batch.
+     * @param maxBatchLength Maximum length of the encoded text of a batch.
      */
-    public GoogleTranslatorProcessor()
+    public GoogleTranslatorProcessor(final @NonNull String endpoint, final @NonNull TranslationHttpClient httpClient, final HttpClient asyncHttpClient, final TranslationMemory memory, final @NonNull TranslationRateLimiter rateLimiter, final @NonNull TranslationRetryPolicy retryPolicy, final int maxBatchEntries, final int maxBatchLength)
+    {
+        this.endpoint = endpoint;
+        this.httpClient = httpClient;
+        this.asyncHttpClient = asyncHttpClient;
+        this.memory = memory;
+        this.rateLimiter = rateLimiter;
+        this.retryPolicy = retryPolicy;
+        this.maxBatchEntries = maxBatchEntries;
+        this.maxBatchLength = maxBatchLength;
+    }
+
+    @Override
+    public void addListener(final @NonNull ITranslationListener listener)
     {
-        gsonBuilder = new GsonFireBuilder()
-                .createGsonBuilder()
-                .setDateFormat("yyyy-MM-dd")
-                .setPrettyPrinting()
-                .registerTypeAdapter(ITranslationResult.class, new GoogleTranslationResultDeserializer())
-                .registerTypeAdapter(ITranslationResultSentence.class, new GoogleTranslationResultSentenceDeserializer())
-                .enableComplexMapKeySerialization()
-                .create();
+        listeners.add(listener);
     }
 
     @Override
@@ -69,6 +186,147 @@ public final class GoogleTranslatorProcessor implements ITranslationProcessor
         translateEach(process, entry);
     }
 
+    @Override
+    public Map<ITranslationProcess, Exception> getSharedFailures()
+    {
+        return Collections.unmodifiableMap(sharedFailures);
+    }
+
+    @Override
+    public void abandon(final @NonNull ITranslationProcess process, final @NonNull Exception cause)
+    {
+        for (Map.Entry<ITranslationRequestEntry, ITranslationProcess> released : deduplicator.releaseAll(process))
+        {
+            sharedFailures.putIfAbsent(released.getValue(), cause);
+        }
+    }
+
+    @Override
+    public List<TranslationBatch> partition(final @NonNull ITranslationProcess process, final @NonNull List<ITranslationRequestEntry> entries)
+    {
+        List<TranslationBatch> batches = new ArrayList<>();
+        List<ITranslationRequestEntry> joinable = new ArrayList<>();
+
+        for (ITranslationRequestEntry entry : entries)
+        {
+            // Request entries translated from the memory or duplicating a pending one don't require any request.
+            if (recall(process, entry) || !deduplicator.register(process, entry))
+            {
+                continue;
+            }
+
+            // A source text containing the delimiter cannot be split back, it is sent on its own.
+            if (entry.getSource().contains(BATCH_DELIMITER))
+            {
+                batches.add(new TranslationBatch(List.of(entry)));
+            }
+            else
+            {
+                joinable.add(entry);
+            }
+        }
+
+        batches.addAll(TranslationBatch.partition(
+                joinable,
+                maxBatchEntries,
+                maxBatchLength,
+                text -> URLEncoder.encode(text, StandardCharsets.UTF_8).length() + BATCH_DELIMITER_LENGTH));
+
+        return batches;
+    }
+
+    @Override
+    public void translate(final @NonNull ITranslationProcess process, final @NonNull TranslationBatch batch) throws TranslationException
+    {
+        if (batch.size() == 1)
+        {
+            translateEach(process, batch.getEntries().get(0));
+            return;
+        }
+
+        String[] translations = split(request(process, join(batch)).getTranslation());
+        if (translations.length != batch.size())
+        {
+            // Segments have been merged or split by the provider, fall back to one request per entry.
+            for (ITranslationRequestEntry entry : batch.getEntries())
+            {
+                translateEach(process, entry);
+            }
+            return;
+        }
+
+        apply(process, batch, translations);
+    }
+
+    @Override
+    public CompletableFuture<Void> translateAsync(final @NonNull ITranslationProcess process, final @NonNull TranslationBatch batch)
+    {
+        if (batch.size() == 1)
+        {
+            return translateEachAsync(process, batch.getEntries().get(0));
+        }
+
+        return requestAsync(process, join(batch)).thenCompose(result ->
+        {
+            String[] translations = split(result.getTranslation());
+            if (translations.length != batch.size())
+            {
+                // Segments have been merged or split by the provider, fall back to one request per entry.
+                return CompletableFuture.allOf(batch.getEntries().stream()
+                        .map(entry -> translateEachAsync(process, entry))
+                        .toArray(CompletableFuture[]::new));
+            }
+
+            apply(process, batch, translations);
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * Joins the source texts of a batch into a single text.
+     * @param batch Batch of request entries.
+     * @return Joined text.
+     */
+    private String join(final @NonNull TranslationBatch batch)
+    {
+        return batch.getEntries().stream()
+                .map(ITranslationRequestEntry::getSource)
+                .collect(Collectors.joining(BATCH_DELIMITER));
+    }
+
+    /**
+     * Splits the translation of a joined text back into its segments.
+     * @param translation Translated text.
+     * @return Translated segments.
+     */
+    private String[] split(final @NonNull String translation)
+    {
+        String text = translation;
+        if (text.endsWith(BATCH_DELIMITER))
+        {
+            // The source text never ends with the delimiter, a trailing one is not a segment separator.
+            text = text.substring(0, text.length() - BATCH_DELIMITER.length());
+        }
+
+        return text.split(BATCH_DELIMITER, -1);
+    }
+
+    /**
+     * Sets the translated segments as the results of the request entries of a batch.
+     * @param process Translation process.
+     * @param batch Batch of request entries.
+     * @param translations Translated segments, one for each request entry.
+     */
+    private void apply(final @NonNull ITranslationProcess process, final @NonNull TranslationBatch batch, final @NonNull String[] translations)
+    {
+        ITranslationRequestEntry entry;
+        for (int i = 0; i < translations.length; i++)
+        {
+            entry = batch.getEntries().get(i);
+            resolve(process, entry, new GoogleTranslationResult(entry.getSource(), alignWhitespaces(entry.getSource(), translations[i])));
+        }
+    }
+
     /**
      * Translate a request entry.
      * @param process Translation process.
@@ -77,37 +335,398 @@ public final class GoogleTranslatorProcessor implements ITranslationProcessor
      */
     private void translateEach(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry) throws TranslationException
     {
-        String url;
+        if (entry.requireTranslation() && !recall(process, entry))
+        {
+            resolve(process, entry, request(process, entry.getSource()));
+        }
+    }
+
+    /**
+     * Translates asynchronously a request entry.
+     * @param process Translation process.
+     * @param entry Translation request entry.
+     * @return Future completing when the request entry has been translated.
+     */
+    private CompletableFuture<Void> translateEachAsync(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry)
+    {
+        if (!entry.requireTranslation() || recall(process, entry))
+        {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return requestAsync(process, entry.getSource()).thenAccept(result -> resolve(process, entry, result));
+    }
+
+    /**
+     * Translates a request entry from the checkpoint of the resumed run or from the translation memory.
+     * @param process Translation process.
+     * @param entry Translation request entry.
+     * @return True if the request entry has been translated without sending any request, false otherwise.
+     */
+    private boolean recall(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry)
+    {
+        ITranslationCheckpoint resumed = checkpoint;
+        String translation = resumed != null ? resumed.recall(process, entry) : null;
 
-        try (CloseableHttpClient httpClient = HttpClientBuilder.create().build())
+        if (translation != null)
+        {
+            metrics.recordCheckpointHit();
+        }
+        else if (memory != null)
         {
-            if (entry.requireTranslation())
+            translation = memory.get(
+                    process.getRequest().getSourceLocale().getLanguage(),
+                    process.getRequest().getTargetLocale().getLanguage(),
+                    entry.getSource());
+            if (translation != null)
             {
-                url = buildUrl(
-                        entry.getSource(),
-                        process.getRequest().getSourceLocale().getLanguage(),
-                        process.getRequest().getTargetLocale().getLanguage());
+                metrics.recordMemoryHit();
+            }
+        }
+
+        if (translation == null)
+        {
+            return false;
+        }
+
+        entry.setResult(new GoogleTranslationResult(entry.getSource(), translation));
+        notifyTranslated(process, entry, translation);
+        release(process, entry, translation);
+        return true;
+    }
+
+    /**
+     * Sets the translation result of a request entry sent to the provider, stores it in the translation memory and
+     * applies it to the duplicates of the request entry.
+     * @param process Translation process.
+     * @param entry Translation request entry.
+     * @param result Translation result.
+     */
+    private void resolve(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry, final @NonNull GoogleTranslationResult result)
+    {
+        entry.setResult(result);
+        remember(process, entry.getSource(), result.getTranslation());
+        notifyTranslated(process, entry, result.getTranslation());
+        release(process, entry, result.getTranslation());
+    }
+
+    /**
+     * Applies the translation of a leader request entry to its duplicates.
+     * @param process Translation process.
+     * @param leader Leader request entry.
+     * @param translation Translated text of the leader.
+     */
+    private void release(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry leader, final @NonNull String translation)
+    {
+        ITranslationRequestEntry duplicate;
+        String text;
+
+        for (Map.Entry<ITranslationRequestEntry, ITranslationProcess> released : deduplicator.release(process, leader))
+        {
+            // Duplicates only differ from their leader by their leading and trailing whitespaces.
+            duplicate = released.getKey();
+            text = duplicate.getSource().equals(leader.getSource()) ? translation : wrapWhitespaces(duplicate.getSource(), translation.strip());
+            duplicate.setResult(new GoogleTranslationResult(duplicate.getSource(), text));
+            metrics.recordDuplicateHit();
+            notifyTranslated(released.getValue(), duplicate, text);
+        }
+    }
+
+    /**
+     * Notifies the listeners a request entry has been translated.
+     * @param process Translation process.
+     * @param entry Translation request entry.
+     * @param translation Translated text.
+     */
+    private void notifyTranslated(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry, final @NonNull String translation)
+    {
+        for (ITranslationListener listener : listeners)
+        {
+            listener.onTranslated(process, entry, translation);
+        }
+    }
+
+    /**
+     * Stores a translation in the translation memory.
+     * @param process Translation process.
+     * @param text Source text.
+     * @param translation Translated text.
+     */
+    private void remember(final @NonNull ITranslationProcess process, final @NonNull String text, final @NonNull String translation)
+    {
+        if (memory != null)
+        {
+            memory.put(
+                    process.getRequest().getSourceLocale().getLanguage(),
+                    process.getRequest().getTargetLocale().getLanguage(),
+                    text,
+                    translation);
+        }
+    }
+
+    /**
+     * Sends a translation request for the given text, retrying it when the provider throttles or fails it.
+     * @param process Translation process.
+     * @param text Text to translate.
+     * @return {@link GoogleTranslationResult} representing the translation result.
+     * @throws TranslationException Thrown to indicate an error occurred while trying to translate the text.
+     */
+    private GoogleTranslationResult request(final @NonNull ITranslationProcess process, final @NonNull String text) throws TranslationException
+    {
+        String url = buildUrl(
+                text,
+                process.getRequest().getSourceLocale().getLanguage(),
+                process.getRequest().getTargetLocale().getLanguage());
+
+        long delay;
+        long start;
+        boolean throttling;
+
+        try
+        {
+            for (int attempt = 0; ; attempt++)
+            {
+                rateLimiter.acquire();
 
                 HttpGet http = new HttpGet(url);
                 http.setHeader( "Accept", "application/json" );
-                HttpResponse response = httpClient.execute(new HttpGet(url));
-                StatusLine statusLine = response.getStatusLine();
 
-                if (statusLine.getStatusCode() == HttpStatus.SC_OK)
+                // The response must always be consumed and closed to release the connection back to the pool.
+                start = System.nanoTime();
+                try (CloseableHttpResponse response = httpClient.getClient().execute(http))
                 {
-                    entry.setResult(deserializeResponse(getResponseString(response)));
+                    metrics.recordRequest(System.nanoTime() - start, url.length());
+                    StatusLine statusLine = response.getStatusLine();
+
+                    if (statusLine.getStatusCode() == HttpStatus.SC_OK)
+                    {
+                        rateLimiter.onSuccess();
+                        return readResponse(response);
+                    }
+
+                    EntityUtils.consumeQuietly(response.getEntity());
+                    if (!retryPolicy.isRetryable(statusLine.getStatusCode()) || attempt >= retryPolicy.getMaxRetries())
+                    {
+                        throw new TranslationException(String.format("%d %s", statusLine.getStatusCode(), statusLine.getReasonPhrase()));
+                    }
+
+                    rateLimiter.onThrottled();
+                    Long retryAfter = getRetryAfter(response);
+                    if (retryAfter != null)
+                    {
+                        rateLimiter.defer(Math.min(retryAfter, retryPolicy.getMaxDelay()));
+                    }
+                    delay = retryPolicy.getDelay(attempt, retryAfter);
+                    throttling = true;
                 }
-                else
+                catch (IOException e)
                 {
-                    throw new TranslationException(response.getStatusLine().getReasonPhrase());
+                    if (attempt >= retryPolicy.getMaxRetries())
+                    {
+                        throw new TranslationException(e);
+                    }
+                    delay = retryPolicy.getDelay(attempt, null);
+                    throttling = false;
                 }
+
+                metrics.recordRetry(throttling);
+                TimeUnit.MILLISECONDS.sleep(delay);
             }
         }
-        catch (Exception e)
+        catch (InterruptedException e)
         {
+            Thread.currentThread().interrupt();
             throw new TranslationException(e);
         }
-   }
+    }
+
+    /**
+     * Sends asynchronously a translation request for the given text, retrying it when the provider throttles or fails
+     * it.
+     * @param process Translation process.
+     * @param text Text to translate.
+     * @return Future of the {@link GoogleTranslationResult} representing the translation result.
+     */
+    private CompletableFuture<GoogleTranslationResult> requestAsync(final @NonNull ITranslationProcess process, final @NonNull String text)
+    {
+        if (asyncHttpClient == null)
+        {
+            return CompletableFuture.failedFuture(new TranslationException("Asynchronous translations are not supported by this processor!"));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(buildUrl(
+                        text,
+                        process.getRequest().getSourceLocale().getLanguage(),
+                        process.getRequest().getTargetLocale().getLanguage())))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return sendAsync(request, 0, rateLimiter.reserve());
+    }
+
+    /**
+     * Sends asynchronously an attempt of a translation request once the given delay elapsed.
+     * @param request HTTP request.
+     * @param attempt Number of the attempt (starting at zero).
+     * @param delay Delay (in nanoseconds) before sending the request.
+     * @return Future of the {@link GoogleTranslationResult} representing the translation result.
+     */
+    private CompletableFuture<GoogleTranslationResult> sendAsync(final @NonNull HttpRequest request, final int attempt, final long delay)
+    {
+        // The delay is handled by a shared scheduler, no thread is blocked while waiting for the rate limiter.
+        return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS))
+                .thenCompose(ignored -> send(request))
+                .handle((response, error) ->
+                {
+                    if (error != null)
+                    {
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        if (!(cause instanceof IOException) || attempt >= retryPolicy.getMaxRetries())
+                        {
+                            return CompletableFuture.<GoogleTranslationResult>failedFuture(new TranslationException(cause instanceof Exception ? (Exception) cause : new IOException(cause)));
+                        }
+                        metrics.recordRetry(false);
+                        return retryAsync(request, attempt, retryPolicy.getDelay(attempt, null));
+                    }
+
+                    if (response.statusCode() == HttpStatus.SC_OK)
+                    {
+                        rateLimiter.onSuccess();
+
+                        // The response is decoded while it is received, it is never buffered as a whole.
+                        try (Reader reader = new InputStreamReader(metrics.countReceived(response.body()), StandardCharsets.UTF_8))
+                        {
+                            return CompletableFuture.completedFuture(GoogleTranslationResponseReader.read(reader));
+                        }
+                        catch (IOException e)
+                        {
+                            return CompletableFuture.<GoogleTranslationResult>failedFuture(new TranslationException(e));
+                        }
+                    }
+
+                    // The response must always be consumed and closed to release the connection.
+                    discard(response.body());
+                    if (!retryPolicy.isRetryable(response.statusCode()) || attempt >= retryPolicy.getMaxRetries())
+                    {
+                        return CompletableFuture.<GoogleTranslationResult>failedFuture(new TranslationException(String.format("HTTP status: %d", response.statusCode())));
+                    }
+
+                    rateLimiter.onThrottled();
+                    Long retryAfter = getRetryAfter(response.headers().firstValue(HttpHeaders.RETRY_AFTER).orElse(null));
+                    if (retryAfter != null)
+                    {
+                        rateLimiter.defer(Math.min(retryAfter, retryPolicy.getMaxDelay()));
+                    }
+                    metrics.recordRetry(true);
+                    return retryAsync(request, attempt, retryPolicy.getDelay(attempt, retryAfter));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Sends asynchronously an HTTP request and records its metrics.
+     * @param request HTTP request.
+     * @return Future of the HTTP response.
+     */
+    private CompletableFuture<java.net.http.HttpResponse<InputStream>> send(final @NonNull HttpRequest request)
+    {
+        long start = System.nanoTime();
+
+        return asyncHttpClient.sendAsync(request, BodyHandlers.ofInputStream()).thenApply(response ->
+        {
+            metrics.recordRequest(System.nanoTime() - start, request.uri().toString().length());
+            return response;
+        });
+    }
+
+    /**
+     * Discards the body of an HTTP response which is not decoded.
+     * @param body Response body stream.
+     */
+    private void discard(final @NonNull InputStream body)
+    {
+        try (InputStream input = metrics.countReceived(body))
+        {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        catch (IOException e)
+        {
+            // The connection is closed instead of being reused.
+        }
+    }
+
+    /**
+     * Retries asynchronously a translation request.
+     * @param request HTTP request.
+     * @param attempt Number of the failed attempt (starting at zero).
+     * @param delay Delay (in milliseconds) before retrying the request.
+     * @return Future of the {@link GoogleTranslationResult} representing the translation result.
+     */
+    private CompletableFuture<GoogleTranslationResult> retryAsync(final @NonNull HttpRequest request, final int attempt, final long delay)
+    {
+        // The retry goes through the rate limiter as any other request.
+        return sendAsync(request, attempt + 1, TimeUnit.MILLISECONDS.toNanos(delay) + rateLimiter.reserve());
+    }
+
+    /**
+     * Returns the delay requested by the provider before retrying a request.
+     * @param response HTTP response.
+     * @return Delay (in milliseconds) or {@code null} if the provider did not request any.
+     */
+    private Long getRetryAfter(final @NonNull HttpResponse response)
+    {
+        Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        return getRetryAfter(header != null ? header.getValue() : null);
+    }
+
+    /**
+     * Returns the delay requested by the provider before retrying a request.
+     * @param value Value of the {@code Retry-After} header, in seconds or as an HTTP date ({@code null} if none).
+     * @return Delay (in milliseconds) or {@code null} if the provider did not request any.
+     */
+    private Long getRetryAfter(final String value)
+    {
+        if (value == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        }
+        catch (NumberFormatException e)
+        {
+            Date date = DateUtils.parseDate(value);
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : null;
+        }
+    }
+
+    /**
+     * Removes the leading and trailing whitespaces the provider may have added around a segment of a batch when the
+     * source text has none.
+     * @param source Source text.
+     * @param translation Translated segment.
+     * @return Translated segment.
+     */
+    private String alignWhitespaces(final @NonNull String source, final @NonNull String translation)
+    {
+        return source.equals(source.strip()) ? translation.strip() : translation;
+    }
+
+    /**
+     * Surrounds a translated text with the leading and trailing whitespaces of its source text.
+     * @param source Source text.
+     * @param translation Translated text without leading and trailing whitespaces.
+     * @return Translated text.
+     */
+    private String wrapWhitespaces(final @NonNull String source, final @NonNull String translation)
+    {
+        String leading = source.substring(0, source.length() - source.stripLeading().length());
+        String trailing = source.substring(source.stripTrailing().length());
+        return leading + translation + trailing;
+    }
 
     /**
      * Builds the URL to be used for the translation.
@@ -119,30 +738,21 @@ public final class GoogleTranslatorProcessor implements ITranslationProcessor
     private String buildUrl(String text, String sourceLanguage, String targetLanguage)
     {
         String textEncoded = URLEncoder.encode(text, StandardCharsets.UTF_8);
-        return GOOGLE_TRANSLATE_API + sourceLanguage + "&tl=" + targetLanguage + "&dt=t&q=" + textEncoded + "&dj=1";
+        return endpoint + GOOGLE_TRANSLATE_QUERY + sourceLanguage + "&tl=" + targetLanguage + "&dt=t&q=" + textEncoded + "&dj=1";
     }
 
     /**
-     * Extracts the response string from the received HTTP response.
+     * Reads the translation result directly from the HTTP response stream.
      * @param response HTTP response.
-     * @return Response string.
-     * @throws IOException Thrown to indicate an error occurred while trying to extracts the response string.
-     */
-    private String getResponseString(HttpResponse response) throws IOException
-    {
-        return EntityUtils.toString(response.getEntity());
-    }
-
-    /**
-     * Deserializes the response.
-     * @param response Response.
-     * @return De-serialized {@link ITranslationResult} representing the translation result.
+     * @return {@link GoogleTranslationResult} representing the translation result.
+     * @throws IOException Thrown to indicate an error occurred while trying to read the response.
      */
-    private ITranslationResult deserializeResponse(String response)
+    private GoogleTranslationResult readResponse(final @NonNull HttpResponse response) throws IOException
     {
-        return GsonHelper.deserialize(
-                gsonBuilder,
-                response,
-                new TypeToken<ITranslationResult>(){}.getType());
+        // JSON responses of the provider are always encoded in UTF-8.
+        try (Reader reader = new InputStreamReader(metrics.countReceived(response.getEntity().getContent()), StandardCharsets.UTF_8))
+        {
+            return GoogleTranslationResponseReader.read(reader);
+        }
     }
 }
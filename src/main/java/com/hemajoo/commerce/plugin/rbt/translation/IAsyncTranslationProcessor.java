@@ -0,0 +1,42 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Provides the behavior of a translation processor able to translate batches of request entries without blocking the
+ * calling thread.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public interface IAsyncTranslationProcessor extends IBatchTranslationProcessor
+{
+    /**
+     * Translates asynchronously a batch of request entries.
+     * <br>
+     * The returned future completes once the results have been set on the request entries of the batch, or
+     * completes exceptionally with a {@link org.ressec.core.extension.i18n.translation.engine.TranslationException}
+     * if the batch cannot be translated.
+     * @param process Translation process.
+     * @param batch Batch of request entries.
+     * @return Future completing when the batch has been translated.
+     */
+    CompletableFuture<Void> translateAsync(ITranslationProcess process, TranslationBatch batch);
+}
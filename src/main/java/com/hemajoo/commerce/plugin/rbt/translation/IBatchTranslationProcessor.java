@@ -0,0 +1,75 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcessor;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+import org.ressec.core.extension.i18n.translation.engine.TranslationException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides the behavior of a translation processor able to translate several request entries in a single request.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public interface IBatchTranslationProcessor extends ITranslationProcessor
+{
+    /**
+     * Partitions the given request entries into batches fitting the limits of the translation provider.
+     * <br>
+     * Request entries which can be translated without sending any request (for example from a translation memory)
+     * are translated immediately and are not part of the returned batches.
+     * @param process Translation process.
+     * @param entries Request entries requiring a translation.
+     * @return List of {@link TranslationBatch}.
+     */
+    List<TranslationBatch> partition(ITranslationProcess process, List<ITranslationRequestEntry> entries);
+
+    /**
+     * Translates a batch of request entries.
+     * @param process Translation process.
+     * @param batch Batch of request entries.
+     * @throws TranslationException Thrown to indicate an error occurred while trying to translate the batch.
+     */
+    void translate(ITranslationProcess process, TranslationBatch batch) throws TranslationException;
+
+    /**
+     * Returns the translation processes left with untranslated request entries by the failure of another translation
+     * process, for example when they share a source text sent only once, with the cause of the failure.
+     * @return Failed translation processes with their cause.
+     */
+    default Map<ITranslationProcess, Exception> getSharedFailures()
+    {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Abandons the request entries of a failed translation process still pending, whether their batch failed or was
+     * never sent. The translation processes sharing one of these request entries are then reported through
+     * {@link #getSharedFailures()}.
+     * @param process Failed translation process.
+     * @param cause Cause of the failure.
+     */
+    default void abandon(ITranslationProcess process, Exception cause)
+    {
+        // Nothing is shared by default.
+    }
+}
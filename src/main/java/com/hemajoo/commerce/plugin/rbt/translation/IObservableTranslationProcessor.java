@@ -16,24 +16,25 @@
  */
 package com.hemajoo.commerce.plugin.rbt.translation;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import org.ressec.core.extension.i18n.translation.engine.ITranslationResult;
-
-import java.lang.reflect.Type;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcessor;
 
 /**
- * Deserializer to be used when JSON encounters a {@link ITranslationResult} interface. It indicates which concrete
- * implementation is to be used.
+ * Provides the behavior of a translation processor reporting its translations to listeners and able to reuse the
+ * translations of an interrupted run.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
-public class GoogleTranslationResultDeserializer implements JsonDeserializer<ITranslationResult>
+public interface IObservableTranslationProcessor extends ITranslationProcessor
 {
-    @Override
-    public ITranslationResult deserialize(JsonElement json, Type type, JsonDeserializationContext context)
-    {
-        return context.deserialize(json, GoogleTranslationResult.class);
-    }
+    /**
+     * Adds a listener notified each time a request entry has been translated.
+     * @param listener Listener.
+     */
+    void addListener(ITranslationListener listener);
+
+    /**
+     * Sets the checkpoint consulted before translating a request entry.
+     * @param checkpoint Checkpoint ({@code null} if none).
+     */
+    void setCheckpoint(ITranslationCheckpoint checkpoint);
 }
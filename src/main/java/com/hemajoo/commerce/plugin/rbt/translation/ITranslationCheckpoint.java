@@ -0,0 +1,37 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+
+/**
+ * Provides the behavior of a checkpoint holding the translations completed by a previous interrupted run.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public interface ITranslationCheckpoint
+{
+    /**
+     * Returns the translation of a request entry completed by the previous run.
+     * @param process Translation process of the request entry.
+     * @param entry Request entry.
+     * @return Translated text or {@code null} if the request entry has not been translated by the previous run or if
+     * its source text changed since.
+     */
+    String recall(ITranslationProcess process, ITranslationRequestEntry entry);
+}
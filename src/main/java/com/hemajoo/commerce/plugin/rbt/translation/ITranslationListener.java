@@ -16,24 +16,23 @@
  */
 package com.hemajoo.commerce.plugin.rbt.translation;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import org.ressec.core.extension.i18n.translation.engine.ITranslationResultSentence;
-
-import java.lang.reflect.Type;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
 
 /**
- * Deserializer to be used when JSON encounters a {@link ITranslationResultSentence} interface. It indicates which
- * concrete implementation is to be used.
+ * Provides the behavior of a listener notified each time a request entry has been translated.
+ * <br>
+ * The notifications are sent from the threads executing the translations.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
-public class GoogleTranslationResultSentenceDeserializer implements JsonDeserializer<ITranslationResultSentence>
+public interface ITranslationListener
 {
-    @Override
-    public ITranslationResultSentence deserialize(JsonElement json, Type type, JsonDeserializationContext context)
-    {
-        return context.deserialize(json, GoogleTranslationResultSentence.class);
-    }
+    /**
+     * Notifies a request entry has been translated.
+     * @param process Translation process of the request entry.
+     * @param entry Translated request entry.
+     * @param translation Translated text.
+     */
+    void onTranslated(ITranslationProcess process, ITranslationRequestEntry entry, String translation);
 }
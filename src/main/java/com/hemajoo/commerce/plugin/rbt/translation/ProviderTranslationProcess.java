@@ -16,20 +16,23 @@
  */
 package com.hemajoo.commerce.plugin.rbt.translation;
 
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcessor;
 import org.ressec.core.extension.i18n.translation.engine.TranslationProcess;
 
 /**
- * Represents a {@code Google API} translation process.
+ * Represents a translation process of a target file by the processor of a translation provider.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
-public final class GoogleTranslationProcess extends TranslationProcess
+public final class ProviderTranslationProcess extends TranslationProcess
 {
     /**
-     * Creates a new Google translation process.
+     * Creates a new translation process.
+     * @param processor Translation processor of the provider.
      */
-    public GoogleTranslationProcess()
+    public ProviderTranslationProcess(final @NonNull ITranslationProcessor processor)
     {
-        super(new GoogleTranslatorProcessor());
+        super(processor);
     }
 }
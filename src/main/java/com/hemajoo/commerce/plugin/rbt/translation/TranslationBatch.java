@@ -0,0 +1,97 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Represents a batch of translation request entries sent to a translation provider in a single request.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationBatch
+{
+    /**
+     * Request entries of the batch.
+     */
+    @Getter
+    private final List<ITranslationRequestEntry> entries;
+
+    /**
+     * Creates a new translation batch.
+     * @param entries Request entries of the batch.
+     */
+    public TranslationBatch(final @NonNull List<ITranslationRequestEntry> entries)
+    {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the number of request entries of the batch.
+     * @return Number of request entries.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Partitions a list of request entries into batches.
+     * <br>
+     * A request entry whose size exceeds the maximum size of a batch is placed alone in its own batch.
+     * @param entries Request entries to partition.
+     * @param maxEntries Maximum number of request entries per batch.
+     * @param maxSize Maximum size of a batch.
+     * @param sizer Function computing the size of a request entry source text.
+     * @return List of {@link TranslationBatch}.
+     */
+    public static List<TranslationBatch> partition(final @NonNull List<ITranslationRequestEntry> entries, final int maxEntries, final int maxSize, final @NonNull ToIntFunction<String> sizer)
+    {
+        List<TranslationBatch> batches = new ArrayList<>();
+        List<ITranslationRequestEntry> current = new ArrayList<>();
+        int currentSize = 0;
+        int size;
+
+        for (ITranslationRequestEntry entry : entries)
+        {
+            size = sizer.applyAsInt(entry.getSource());
+            if (!current.isEmpty() && (current.size() >= maxEntries || currentSize + size > maxSize))
+            {
+                batches.add(new TranslationBatch(current));
+                current = new ArrayList<>();
+                currentSize = 0;
+            }
+
+            current.add(entry);
+            currentSize += size;
+        }
+
+        if (!current.isEmpty())
+        {
+            batches.add(new TranslationBatch(current));
+        }
+
+        return batches;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import lombok.NonNull;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+
+import java.util.*;
+
+/**
+ * Represents the index of the source texts being translated during a run, used to send a single request for the
+ * identical source texts of several request entries.
+ * <br>
+ * The first request entry registered for a source text (compared without its leading and trailing whitespaces) and a
+ * language pair is the leader and is the only one sent to the provider. The request entries registered afterwards
+ * for the same source text and language pair, whatever their translation process, are its duplicates and receive
+ * the translation of the leader once released. If a translation process fails, all its pending leaders are released
+ * too, whether their request failed or was never sent, and their duplicates, left untranslated, have to be reported
+ * as failed.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationDeduplicator
+{
+    /**
+     * Leader request entries by language pair and normalized source text.
+     */
+    private final Map<List<String>, ITranslationRequestEntry> leaders = new HashMap<>();
+
+    /**
+     * Duplicate request entries with their translation process by leader request entry.
+     */
+    private final Map<ITranslationRequestEntry, List<Map.Entry<ITranslationRequestEntry, ITranslationProcess>>> duplicates = new IdentityHashMap<>();
+
+    /**
+     * Pending leader request entries by translation process.
+     */
+    private final Map<ITranslationProcess, Set<ITranslationRequestEntry>> pending = new IdentityHashMap<>();
+
+    /**
+     * Registers a request entry to translate.
+     * @param process Translation process of the request entry.
+     * @param entry Request entry.
+     * @return True if the request entry is a leader and has to be translated, false if it is a duplicate of a pending
+     * leader.
+     */
+    public synchronized boolean register(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry)
+    {
+        ITranslationRequestEntry leader = leaders.putIfAbsent(getKey(process, entry), entry);
+        if (leader == null)
+        {
+            pending.computeIfAbsent(process, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(entry);
+            return true;
+        }
+
+        if (leader == entry)
+        {
+            return true;
+        }
+
+        duplicates.computeIfAbsent(leader, key -> new ArrayList<>()).add(Map.entry(entry, process));
+        return false;
+    }
+
+    /**
+     * Releases a translated or failed leader request entry.
+     * <br>
+     * The request entries registered afterwards for the same source text become leaders again.
+     * @param process Translation process of the leader request entry.
+     * @param leader Leader request entry.
+     * @return Duplicate request entries (with their translation process) to which the translation of the leader has
+     * to be applied, or which have to be reported as failed.
+     */
+    public synchronized List<Map.Entry<ITranslationRequestEntry, ITranslationProcess>> release(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry leader)
+    {
+        leaders.remove(getKey(process, leader), leader);
+        Set<ITranslationRequestEntry> entries = pending.get(process);
+        if (entries != null)
+        {
+            entries.remove(leader);
+        }
+
+        List<Map.Entry<ITranslationRequestEntry, ITranslationProcess>> released = duplicates.remove(leader);
+        return released != null ? released : Collections.emptyList();
+    }
+
+    /**
+     * Releases all the pending leader request entries of a failed translation process, whether their request failed
+     * or was never sent.
+     * @param process Failed translation process.
+     * @return Duplicate request entries (with their translation process) of the released leaders, which have to be
+     * reported as failed.
+     */
+    public synchronized List<Map.Entry<ITranslationRequestEntry, ITranslationProcess>> releaseAll(final @NonNull ITranslationProcess process)
+    {
+        Set<ITranslationRequestEntry> entries = pending.remove(process);
+        if (entries == null)
+        {
+            return Collections.emptyList();
+        }
+
+        List<Map.Entry<ITranslationRequestEntry, ITranslationProcess>> released = new ArrayList<>();
+        for (ITranslationRequestEntry leader : entries)
+        {
+            leaders.remove(getKey(process, leader), leader);
+            List<Map.Entry<ITranslationRequestEntry, ITranslationProcess>> leaderDuplicates = duplicates.remove(leader);
+            if (leaderDuplicates != null)
+            {
+                released.addAll(leaderDuplicates);
+            }
+        }
+
+        return released;
+    }
+
+    /**
+     * Returns the key of a request entry.
+     * @param process Translation process of the request entry.
+     * @param entry Request entry.
+     * @return Key made of the source language, the target language and the normalized source text.
+     */
+    private static List<String> getKey(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry)
+    {
+        return List.of(
+                process.getRequest().getSourceLocale().getLanguage(),
+                process.getRequest().getTargetLocale().getLanguage(),
+                entry.getSource().strip());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import lombok.NonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Represents a glossary of reviewed translations loaded from a tab separated file.
+ * <br>
+ * The first line lists the locales of the columns (for example: {@code en fr de pt_BR}), each following line gives
+ * the translations of a text in these locales. Empty cells are ignored.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationGlossary
+{
+    /**
+     * Column separator.
+     */
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * Translations per source language, target locale and source text.
+     */
+    private final Map<List<String>, String> translations = new HashMap<>();
+
+    /**
+     * Loads a glossary.
+     * @param file Glossary file.
+     * @return {@link TranslationGlossary}.
+     * @throws IOException Thrown in case the glossary cannot be read.
+     */
+    public static TranslationGlossary load(final @NonNull Path file) throws IOException
+    {
+        TranslationGlossary glossary = new TranslationGlossary();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            String line = reader.readLine();
+            if (line == null)
+            {
+                return glossary;
+            }
+
+            String[] locales = line.split(SEPARATOR, -1);
+            String[] cells;
+            while ((line = reader.readLine()) != null)
+            {
+                cells = line.split(SEPARATOR, -1);
+                for (int source = 0; source < cells.length && source < locales.length; source++)
+                {
+                    for (int target = 0; target < cells.length && target < locales.length; target++)
+                    {
+                        if (source != target && !cells[source].isBlank() && !cells[target].isBlank())
+                        {
+                            glossary.put(locales[source], locales[target], cells[source], cells[target]);
+                        }
+                    }
+                }
+            }
+        }
+
+        return glossary;
+    }
+
+    /**
+     * Adds a translation to the glossary.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @param text Source text.
+     * @param translation Translated text.
+     */
+    private void put(final @NonNull String source, final @NonNull String target, final @NonNull String text, final @NonNull String translation)
+    {
+        translations.put(List.of(getLanguage(source.strip()), target.strip(), text.strip()), translation.strip());
+    }
+
+    /**
+     * Returns the translation of a text.
+     * @param source Source locale.
+     * @param target Target locale, its language is used when the glossary has no column for the full locale.
+     * @param text Source text.
+     * @return Translated text or {@code null} if the text is not part of the glossary.
+     */
+    public String get(final @NonNull Locale source, final @NonNull Locale target, final @NonNull String text)
+    {
+        String translation = translations.get(List.of(source.getLanguage(), target.toString(), text.strip()));
+
+        return translation != null ? translation : translations.get(List.of(source.getLanguage(), target.getLanguage(), text.strip()));
+    }
+
+    /**
+     * Returns the number of translations of the glossary.
+     * @return Number of translations.
+     */
+    public int size()
+    {
+        return translations.size();
+    }
+
+    /**
+     * Returns the language of a locale column.
+     * @param locale Locale column (for example: {@code pt_BR}).
+     * @return Language.
+     */
+    private static String getLanguage(final @NonNull String locale)
+    {
+        int separator = locale.indexOf('_');
+        return separator == -1 ? locale : locale.substring(0, separator);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import lombok.Getter;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a long-lived pooled {@code HTTP} client shared by the translation processors.
+ * <br>
+ * Connections are kept alive between requests so that a translation run does not pay a new {@code TCP} and
+ * {@code TLS} handshake for each translated entry.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationHttpClient implements Closeable
+{
+    /**
+     * Delay (in milliseconds) of inactivity after which a pooled connection is validated before being reused.
+     */
+    private static final int VALIDATE_AFTER_INACTIVITY = 2000;
+
+    /**
+     * Pooled connection manager.
+     */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * Underlying HTTP client.
+     */
+    @Getter
+    private final CloseableHttpClient client;
+
+    /**
+     * Creates a new pooled HTTP client.
+     * @param maxConnections Maximum number of pooled connections.
+     * @param maxConnectionsPerRoute Maximum number of pooled connections per route.
+     * @param keepAliveSeconds Keep alive duration (in seconds) used when the server does not specify one.
+     * @param idleEvictionSeconds Duration (in seconds) after which an idle connection is evicted.
+     */
+    public TranslationHttpClient(final int maxConnections, final int maxConnectionsPerRoute, final int keepAliveSeconds, final int idleEvictionSeconds)
+    {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY);
+
+        client = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) ->
+                {
+                    long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return duration > 0 ? duration : TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictionSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Closes the HTTP client and shuts down its connection pool.
+     * @throws IOException Thrown in case an error occurred while closing the HTTP client.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        client.close();
+        connectionManager.shutdown();
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import com.hemajoo.commerce.plugin.rbt.util.RBTStorage;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Represents a persistent translation memory keyed by source text, source language and target language.
+ * <br>
+ * Entries are kept in memory in a least recently used order bounded to a maximum number of entries, the least
+ * recently used entries being evicted first. The memory is stored in a compact compressed binary file which is only
+ * loaded on first access.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationMemory
+{
+    /**
+     * Storage format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Storage file.
+     */
+    @Getter
+    private final Path file;
+
+    /**
+     * Maximum number of entries.
+     */
+    private final int maxEntries;
+
+    /**
+     * Translations ordered from the least to the most recently used.
+     */
+    private Map<Key, String> entries;
+
+    /**
+     * Has the memory been modified since it has been loaded or saved?
+     */
+    private boolean modified = false;
+
+    /**
+     * Creates a new translation memory.
+     * @param file Storage file.
+     * @param maxEntries Maximum number of entries.
+     */
+    public TranslationMemory(final @NonNull Path file, final int maxEntries)
+    {
+        this.file = file;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the translation of a text.
+     * @param sourceLanguage Source language.
+     * @param targetLanguage Target language.
+     * @param text Source text.
+     * @return Translated text or {@code null} if the text is unknown.
+     */
+    public synchronized String get(final @NonNull String sourceLanguage, final @NonNull String targetLanguage, final @NonNull String text)
+    {
+        return getEntries().get(new Key(sourceLanguage, targetLanguage, text));
+    }
+
+    /**
+     * Stores the translation of a text.
+     * @param sourceLanguage Source language.
+     * @param targetLanguage Target language.
+     * @param text Source text.
+     * @param translation Translated text.
+     */
+    public synchronized void put(final @NonNull String sourceLanguage, final @NonNull String targetLanguage, final @NonNull String text, final @NonNull String translation)
+    {
+        if (!translation.equals(getEntries().put(new Key(sourceLanguage, targetLanguage, text), translation)))
+        {
+            modified = true;
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return Number of entries.
+     */
+    public synchronized int size()
+    {
+        return getEntries().size();
+    }
+
+    /**
+     * Clears all the entries.
+     */
+    public synchronized void clear()
+    {
+        getEntries().clear();
+        modified = true;
+    }
+
+    /**
+     * Saves the memory to its storage file if it has been modified.
+     * @throws IOException Thrown in case an error occurred while saving the memory.
+     */
+    public synchronized void save() throws IOException
+    {
+        if (entries == null || !modified)
+        {
+            return;
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary)))))
+        {
+            output.writeInt(VERSION);
+            output.writeInt(entries.size());
+            for (Map.Entry<Key, String> entry : entries.entrySet())
+            {
+                RBTStorage.writeString(output, entry.getKey().sourceLanguage);
+                RBTStorage.writeString(output, entry.getKey().targetLanguage);
+                RBTStorage.writeString(output, entry.getKey().text);
+                RBTStorage.writeString(output, entry.getValue());
+            }
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        modified = false;
+    }
+
+    /**
+     * Returns the entries, loading them from the storage file on first access.
+     * @return Entries.
+     */
+    private Map<Key, String> getEntries()
+    {
+        if (entries == null)
+        {
+            entries = new LinkedHashMap<>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Key, String> eldest)
+                {
+                    return size() > maxEntries;
+                }
+            };
+
+            load();
+        }
+
+        return entries;
+    }
+
+    /**
+     * Loads the entries from the storage file. An unreadable storage file is ignored and will be overwritten.
+     */
+    private void load()
+    {
+        if (!Files.isRegularFile(file))
+        {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file)))))
+        {
+            if (input.readInt() != VERSION)
+            {
+                return;
+            }
+
+            int count = input.readInt();
+            for (int i = 0; i < count; i++)
+            {
+                entries.put(new Key(RBTStorage.readString(input), RBTStorage.readString(input), RBTStorage.readString(input)), RBTStorage.readString(input));
+            }
+        }
+        catch (IOException e)
+        {
+            entries.clear();
+            modified = true;
+        }
+    }
+
+    /**
+     * Key of a translation memory entry.
+     */
+    private static final class Key
+    {
+        private final String sourceLanguage;
+        private final String targetLanguage;
+        private final String text;
+        private final int hash;
+
+        private Key(final @NonNull String sourceLanguage, final @NonNull String targetLanguage, final @NonNull String text)
+        {
+            this.sourceLanguage = sourceLanguage;
+            this.targetLanguage = targetLanguage;
+            this.text = text;
+            this.hash = Objects.hash(sourceLanguage, targetLanguage, text);
+        }
+
+        @Override
+        public boolean equals(final Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (!(other instanceof Key))
+            {
+                return false;
+            }
+
+            Key key = (Key) other;
+            return text.equals(key.text) && sourceLanguage.equals(key.sourceLanguage) && targetLanguage.equals(key.targetLanguage);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+}
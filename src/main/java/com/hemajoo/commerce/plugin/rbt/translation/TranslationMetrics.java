@@ -0,0 +1,327 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import lombok.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the metrics of a translation run: latency of the requests, bytes exchanged with the translation provider,
+ * retries, translations reused without request and time spent writing the documents on the event dispatch thread.
+ * <br>
+ * Recording is lock free, the metrics are updated from the worker threads and the HTTP client threads.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationMetrics
+{
+    /**
+     * Number of sub-buckets of each power of two of the latency histogram (as a power of two).
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * Number of sub-buckets of each power of two of the latency histogram.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Latency histogram (in nanoseconds), each power of two is split into linear sub-buckets so a percentile is known
+     * within 1/8 of its value.
+     */
+    private final AtomicLongArray latencies = new AtomicLongArray(Long.SIZE * SUB_BUCKETS);
+
+    /**
+     * Counters of the run.
+     */
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder latencyTotal = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder checkpointHits = new LongAdder();
+    private final LongAdder duplicateHits = new LongAdder();
+    private final LongAdder edtWrites = new LongAdder();
+    private final LongAdder edtWriteTime = new LongAdder();
+
+    /**
+     * Records a request sent to the translation provider.
+     * @param latency Latency (in nanoseconds) between sending the request and reading its response.
+     * @param sent Number of bytes sent.
+     */
+    public void recordRequest(final long latency, final long sent)
+    {
+        requests.increment();
+        latencyTotal.add(latency);
+        bytesSent.add(sent);
+        latencies.incrementAndGet(getBucket(Math.max(0, latency)));
+    }
+
+    /**
+     * Records a retried request.
+     * @param throttling Has the request been throttled by the provider (as opposed to failed)?
+     */
+    public void recordRetry(final boolean throttling)
+    {
+        retries.increment();
+        if (throttling)
+        {
+            throttled.increment();
+        }
+    }
+
+    /**
+     * Records a request entry translated from the translation memory.
+     */
+    public void recordMemoryHit()
+    {
+        memoryHits.increment();
+    }
+
+    /**
+     * Records a request entry translated from the checkpoint of a resumed run.
+     */
+    public void recordCheckpointHit()
+    {
+        checkpointHits.increment();
+    }
+
+    /**
+     * Records a request entry translated from a duplicate request entry of the run.
+     */
+    public void recordDuplicateHit()
+    {
+        duplicateHits.increment();
+    }
+
+    /**
+     * Records a write of documents on the event dispatch thread.
+     * @param time Duration (in nanoseconds) of the write.
+     */
+    public void recordEdtWrite(final long time)
+    {
+        edtWrites.increment();
+        edtWriteTime.add(time);
+    }
+
+    /**
+     * Returns a stream counting the bytes read as received bytes.
+     * @param input Response stream.
+     * @return Counting stream.
+     */
+    public InputStream countReceived(final @NonNull InputStream input)
+    {
+        return new FilterInputStream(input)
+        {
+            @Override
+            public int read() throws IOException
+            {
+                int value = super.read();
+                if (value != -1)
+                {
+                    bytesReceived.increment();
+                }
+                return value;
+            }
+
+            @Override
+            public int read(final byte[] buffer, final int offset, final int length) throws IOException
+            {
+                int count = super.read(buffer, offset, length);
+                if (count > 0)
+                {
+                    bytesReceived.add(count);
+                }
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Returns a percentile of the request latencies.
+     * @param percentile Percentile (between 0 and 100).
+     * @return Latency (in nanoseconds), upper bound of the histogram bucket holding the percentile, 0 if no request
+     * has been recorded.
+     */
+    public long getLatencyPercentile(final double percentile)
+    {
+        long count = 0;
+        for (int i = 0; i < latencies.length(); i++)
+        {
+            count += latencies.get(i);
+        }
+        if (count == 0)
+        {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < latencies.length(); i++)
+        {
+            seen += latencies.get(i);
+            if (seen >= rank)
+            {
+                return getBucketUpperBound(i);
+            }
+        }
+
+        return getBucketUpperBound(latencies.length() - 1);
+    }
+
+    /**
+     * Returns the mean latency of the requests.
+     * @return Latency (in nanoseconds), 0 if no request has been recorded.
+     */
+    public long getLatencyMean()
+    {
+        long count = requests.sum();
+        return count == 0 ? 0 : latencyTotal.sum() / count;
+    }
+
+    /**
+     * Returns the number of requests sent to the translation provider (retries included).
+     * @return Number of requests.
+     */
+    public long getRequests()
+    {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of retried requests.
+     * @return Number of retries.
+     */
+    public long getRetries()
+    {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of requests throttled by the translation provider.
+     * @return Number of throttled requests.
+     */
+    public long getThrottled()
+    {
+        return throttled.sum();
+    }
+
+    /**
+     * Returns the number of bytes sent to the translation provider.
+     * @return Number of bytes.
+     */
+    public long getBytesSent()
+    {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Returns the number of bytes received from the translation provider.
+     * @return Number of bytes.
+     */
+    public long getBytesReceived()
+    {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Returns the number of request entries translated from the translation memory.
+     * @return Number of request entries.
+     */
+    public long getMemoryHits()
+    {
+        return memoryHits.sum();
+    }
+
+    /**
+     * Returns the number of request entries translated from the checkpoint of a resumed run.
+     * @return Number of request entries.
+     */
+    public long getCheckpointHits()
+    {
+        return checkpointHits.sum();
+    }
+
+    /**
+     * Returns the number of request entries translated from a duplicate request entry.
+     * @return Number of request entries.
+     */
+    public long getDuplicateHits()
+    {
+        return duplicateHits.sum();
+    }
+
+    /**
+     * Returns the number of writes of documents on the event dispatch thread.
+     * @return Number of writes.
+     */
+    public long getEdtWrites()
+    {
+        return edtWrites.sum();
+    }
+
+    /**
+     * Returns the time spent writing documents on the event dispatch thread.
+     * @return Duration (in nanoseconds).
+     */
+    public long getEdtWriteTime()
+    {
+        return edtWriteTime.sum();
+    }
+
+    /**
+     * Returns the histogram bucket of a latency.
+     * @param latency Latency (in nanoseconds).
+     * @return Bucket index.
+     */
+    private static int getBucket(final long latency)
+    {
+        if (latency < SUB_BUCKETS)
+        {
+            return (int) latency;
+        }
+
+        // Power of two of the latency then its next bits as the linear sub-bucket.
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(latency);
+        int sub = (int) (latency >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the upper bound of a histogram bucket.
+     * @param bucket Bucket index.
+     * @return Upper bound (in nanoseconds).
+     */
+    private static long getBucketUpperBound(final int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents an adaptive token bucket rate limiter shared by the requests sent to a translation provider.
+ * <br>
+ * The rate is halved each time the provider throttles the requests and is increased step by step on each successful
+ * request until it reaches back the configured maximum rate.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationRateLimiter
+{
+    /**
+     * Factor applied to the rate when the provider throttles the requests.
+     */
+    private static final double DECREASE_FACTOR = 0.5;
+
+    /**
+     * Fraction of the maximum rate added to the rate on each successful request.
+     */
+    private static final double INCREASE_STEP = 0.05;
+
+    /**
+     * Ratio between the maximum and the minimum rate.
+     */
+    private static final double MIN_RATE_DIVISOR = 20;
+
+    /**
+     * Lowest maximum rate (in requests per second) accepted, a lower or invalid configured rate is raised to it.
+     */
+    private static final double LOWEST_MAX_RATE = 0.1;
+
+    /**
+     * Maximum rate (in requests per second).
+     */
+    private final double maxRate;
+
+    /**
+     * Minimum rate (in requests per second).
+     */
+    private final double minRate;
+
+    /**
+     * Maximum number of tokens the bucket can hold.
+     */
+    private final double capacity;
+
+    /**
+     * Current rate (in requests per second).
+     */
+    private double rate;
+
+    /**
+     * Available tokens, a negative value represents the tokens already reserved by waiting requests.
+     */
+    private double tokens;
+
+    /**
+     * Time (in nanoseconds) of the last refill of the bucket.
+     */
+    private long refillTime;
+
+    /**
+     * Creates a new rate limiter.
+     * @param maxRate Maximum rate (in requests per second), raised to {@link #LOWEST_MAX_RATE} if lower, as a
+     * non-positive rate would make the requests wait forever.
+     * @param capacity Maximum number of requests which can be sent in a burst.
+     */
+    public TranslationRateLimiter(final double maxRate, final int capacity)
+    {
+        this.maxRate = maxRate >= LOWEST_MAX_RATE ? maxRate : LOWEST_MAX_RATE;
+        this.minRate = this.maxRate / MIN_RATE_DIVISOR;
+        this.capacity = Math.max(1, capacity);
+        this.rate = this.maxRate;
+        this.tokens = this.capacity;
+        this.refillTime = System.nanoTime();
+    }
+
+    /**
+     * Acquires a token, waiting until one is available.
+     * @throws InterruptedException Thrown in case the current thread has been interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException
+    {
+        long wait = reserve();
+        if (wait > 0)
+        {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Reserves a token without waiting, the caller has to delay its request by the returned duration.
+     * @return Duration (in nanoseconds) before the reserved token is available.
+     */
+    public synchronized long reserve()
+    {
+        refill();
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Notifies the rate limiter a request succeeded.
+     */
+    public synchronized void onSuccess()
+    {
+        refill();
+        rate = Math.min(maxRate, rate + maxRate * INCREASE_STEP);
+    }
+
+    /**
+     * Notifies the rate limiter the provider throttled a request.
+     */
+    public synchronized void onThrottled()
+    {
+        refill();
+        rate = Math.max(minRate, rate * DECREASE_FACTOR);
+    }
+
+    /**
+     * Defers all the requests for the given delay, typically when the provider asks to retry after a delay.
+     * <br>
+     * The delay applies to all the requests sharing the rate limiter, the caller has to bound it (for example with
+     * the maximum delay of its retry policy).
+     * @param delay Delay (in milliseconds).
+     */
+    public synchronized void defer(final long delay)
+    {
+        refill();
+        tokens = Math.min(tokens, -rate * delay / TimeUnit.SECONDS.toMillis(1));
+    }
+
+    /**
+     * Returns the current rate.
+     * @return Rate (in requests per second).
+     */
+    public synchronized double getRate()
+    {
+        return rate;
+    }
+
+    /**
+     * Refills the bucket with the tokens generated since the last refill.
+     */
+    private void refill()
+    {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refillTime) * rate / TimeUnit.SECONDS.toNanos(1));
+        refillTime = now;
+    }
+}
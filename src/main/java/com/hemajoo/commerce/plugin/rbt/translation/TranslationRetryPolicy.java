@@ -0,0 +1,89 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents the retry policy applied when a translation provider throttles or fails a request.
+ * <br>
+ * The delay before a retry is the delay requested by the provider if any, otherwise an exponential backoff with full
+ * jitter so that concurrent workers do not retry all at the same time.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationRetryPolicy
+{
+    /**
+     * Maximum number of retries of a request.
+     */
+    @Getter
+    private final int maxRetries;
+
+    /**
+     * Base delay (in milliseconds) of the exponential backoff.
+     */
+    private final long baseDelay;
+
+    /**
+     * Maximum delay (in milliseconds) before a retry.
+     */
+    @Getter
+    private final long maxDelay;
+
+    /**
+     * Creates a new retry policy.
+     * @param maxRetries Maximum number of retries of a request.
+     * @param baseDelay Base delay (in milliseconds) of the exponential backoff.
+     * @param maxDelay Maximum delay (in milliseconds) before a retry.
+     */
+    public TranslationRetryPolicy(final int maxRetries, final long baseDelay, final long maxDelay)
+    {
+        this.maxRetries = maxRetries;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Returns if a request failed with the given status code can be retried.
+     * @param status HTTP status code.
+     * @return True if the request can be retried, false otherwise.
+     */
+    public boolean isRetryable(final int status)
+    {
+        return status == 429 || status >= 500;
+    }
+
+    /**
+     * Returns the delay before retrying a request.
+     * @param attempt Number of the failed attempt (starting at zero).
+     * @param retryAfter Delay (in milliseconds) requested by the provider, {@code null} if none.
+     * @return Delay (in milliseconds).
+     */
+    public long getDelay(final int attempt, final Long retryAfter)
+    {
+        if (retryAfter != null)
+        {
+            return Math.min(maxDelay, retryAfter) + ThreadLocalRandom.current().nextLong(baseDelay + 1);
+        }
+
+        long ceiling = Math.min(maxDelay, baseDelay << Math.min(attempt, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -14,25 +14,28 @@ package com.hemajoo.commerce.plugin.rbt.ui;
 import com.hemajoo.commerce.plugin.rbt.action.ActionAbout;
 import com.hemajoo.commerce.plugin.rbt.action.ActionSelectAll;
 import com.hemajoo.commerce.plugin.rbt.action.ActionTranslate;
+import com.hemajoo.commerce.plugin.rbt.action.ActionTranslateAll;
+import com.hemajoo.commerce.plugin.rbt.action.ActionReport;
+import com.hemajoo.commerce.plugin.rbt.action.ActionResume;
+import com.hemajoo.commerce.plugin.rbt.action.ActionSelectProvider;
 import com.hemajoo.commerce.plugin.rbt.action.ActionUnselectAll;
 import com.hemajoo.commerce.plugin.rbt.message.*;
 import com.hemajoo.commerce.plugin.rbt.model.PropertiesModelException;
 import com.hemajoo.commerce.plugin.rbt.model.TranslationFile;
 import com.hemajoo.commerce.plugin.rbt.service.RBTService;
-import com.hemajoo.commerce.plugin.rbt.util.HTMLString;
 import com.intellij.openapi.actionSystem.ActionManager;
 import com.intellij.openapi.actionSystem.ActionToolbar;
 import com.intellij.openapi.actionSystem.DefaultActionGroup;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.ui.CheckBoxList;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.ui.JBUI;
 import lombok.NonNull;
 
 import javax.swing.*;
+import javax.swing.table.TableColumn;
 import java.awt.*;
-import java.awt.event.ItemEvent;
-import java.util.Locale;
-import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -47,9 +50,10 @@ public class RBTToolWindow
     private JPanel bottomSplitPanel;
     private JSplitPane splitPane;
     private JPanel toolbarPanel;
-    private CheckBoxList<JCheckBox> targetTranslationList;
-    private CheckBoxList<JCheckBox> sourceTranslationList;
+    private JBTable targetTranslationTable;
+    private CheckBoxList<TranslationFile> sourceTranslationList;
     private final Project project;
+    private final TargetTranslationTableModel targetTranslationModel = new TargetTranslationTableModel();
 
     /**
      * Creates a new {@code I18nWindow}.
@@ -62,12 +66,19 @@ public class RBTToolWindow
 
         createToolbar();
 
+        // The list items are the translation files themselves, a toggle is applied to the model in constant time.
+        sourceTranslationList.setCheckBoxListListener(this::onSourceFileChanged);
+        createTargetTable();
+
         // Register messages for toolbar buttons.
         project.getMessageBus().connect().subscribe(MessageActivate.MESSAGE_TOPIC_ACTIVATE_TRANSLATOR, this::onFileSelectedMessageReceived);
         project.getMessageBus().connect().subscribe(MessageUnselectAll.MESSAGE_TOPIC_UNSELECT, this::onUnselectMessageReceived);
         project.getMessageBus().connect().subscribe(MessageTranslate.MESSAGE_TOPIC_TRANSLATE, this::onTranslateMessageReceived);
         project.getMessageBus().connect().subscribe(MessageSelectAll.MESSAGE_TOPIC_SELECT_ALL_TARGET, this::onSelectAllTargetFiles);
+        project.getMessageBus().connect().subscribe(MessageResume.MESSAGE_TOPIC_RESUME, this::onResumeMessageReceived);
+        project.getMessageBus().connect().subscribe(MessageReport.MESSAGE_TOPIC_REPORT, this::onReport);
         project.getMessageBus().connect().subscribe(MessageAbout.MESSAGE_TOPIC_ABOUT, this::onAbout);
+        project.getMessageBus().connect().subscribe(MessageTranslationStatus.MESSAGE_TOPIC_TRANSLATION_STATUS, targetTranslationModel::statusChanged);
     }
 
     private void onAbout()
@@ -75,25 +86,36 @@ public class RBTToolWindow
         new AboutDialogWrapper().showAndGet();
     }
 
-    private void onSelectAllTargetFiles()
+    private void onReport()
     {
-        DefaultListModel<JCheckBox> model = new DefaultListModel<>();
-        JCheckBox checkbox;
-
-        targetTranslationList.clear();
-
-        for (Map.Entry<Locale, TranslationFile> entry : getService().getModel().getTargetTranslation().entrySet())
+        if (getService().getLastReport() != null)
         {
-            if (!entry.getKey().equals(getService().getModel().getSourceTranslation().getLocale()))
-            {
-                checkbox = new JCheckBox(entry.getValue().getUILabel(), true);
-                checkbox.addItemListener(this::onTargetFileChanged);
-                model.addElement(checkbox);
-                getService().getModel().selectTarget( getPureText(checkbox.getText()));
-            }
+            new RunReportDialogWrapper(project, getService().getLastReport()).show();
         }
+    }
 
-        targetTranslationList.setModel(model);
+    private void onSelectAllTargetFiles()
+    {
+        getService().getModel().selectAllTargets();
+        targetTranslationModel.selectionChanged();
+    }
+
+    /**
+     * Creates the table of the target translation files, backed by the service model.
+     */
+    private void createTargetTable()
+    {
+        targetTranslationTable.setModel(targetTranslationModel);
+        targetTranslationTable.setDefaultRenderer(TranslationFile.class, new TranslationFileCellRenderer());
+        targetTranslationTable.setShowGrid(false);
+        targetTranslationTable.setStriped(true);
+
+        TableColumn selection = targetTranslationTable.getColumnModel().getColumn(TargetTranslationTableModel.COLUMN_SELECTED);
+        selection.setMinWidth(JBUI.scale(30));
+        selection.setMaxWidth(JBUI.scale(30));
+        TableColumn status = targetTranslationTable.getColumnModel().getColumn(TargetTranslationTableModel.COLUMN_STATUS);
+        status.setPreferredWidth(JBUI.scale(90));
+        status.setMaxWidth(JBUI.scale(120));
     }
 
     /**
@@ -103,8 +125,12 @@ public class RBTToolWindow
     {
         DefaultActionGroup actionGroup = new DefaultActionGroup("I18nActionGroup", false);
         actionGroup.add(new ActionTranslate());
+        actionGroup.add(new ActionTranslateAll());
+        actionGroup.add(new ActionResume());
         actionGroup.add(new ActionSelectAll());
         actionGroup.add(new ActionUnselectAll());
+        actionGroup.add(new ActionSelectProvider());
+        actionGroup.add(new ActionReport());
         actionGroup.add(new ActionAbout());
 
         ActionManager actionManager = ActionManager.getInstance();
@@ -121,126 +147,86 @@ public class RBTToolWindow
         onUnselectMessageReceived();
     }
 
+    /**
+     * Invoked each time a {@link MessageResume#MESSAGE_TOPIC_RESUME} message is received.
+     */
+    private void onResumeMessageReceived()
+    {
+        // The tool window is refreshed by the service once the resumed bundle is loaded.
+        getService().resume(project);
+    }
+
     /**
      * Invoked each time a {@link MessageActivate#MESSAGE_TOPIC_ACTIVATE_TRANSLATOR} message is received.
      */
     private void onFileSelectedMessageReceived()
     {
-        JCheckBox checkBox;
-        DefaultListModel<JCheckBox> uiModel = new DefaultListModel<>();
-
-        for (Map.Entry<Locale, TranslationFile> entry : getService().getModel().getTranslations().entrySet())
+        sourceTranslationList.clear();
+        for (TranslationFile translation : getService().getModel().getTranslations().values())
         {
-            checkBox = new JCheckBox(entry.getValue().getUILabel());
-            checkBox.addItemListener(this::onSourceFileChanged);
-            uiModel.addElement(checkBox);
+            sourceTranslationList.addItem(translation, translation.getUILabel(), false);
         }
-        sourceTranslationList.setModel(uiModel);
-        targetTranslationList.clear();
+        targetTranslationModel.setModel(null);
     }
 
     /**
      * Invoked each time a {@link MessageUnselectAll#MESSAGE_TOPIC_UNSELECT} message is received.
      * <br>
-     * It clears all files from the file lists.
+     * It unselects all the target translation files.
      */
     private void onUnselectMessageReceived()
     {
         RBTService service = Objects.requireNonNull(project).getService(RBTService.class);
 
-        targetTranslationList.clear();
-        service.getModel().getTargetTranslationSelected().clear();
-        updateTargetUIList();
+        service.getModel().unselectAllTargets();
+        targetTranslationModel.selectionChanged();
     }
 
     /**
      * Invoked when a source translation file selection changed (checked / unchecked).
-     * @param e Item event.
+     * @param index Index of the source translation file in the list.
+     * @param selected Is the source translation file checked?
      */
-    private void onSourceFileChanged(ItemEvent e)
+    private void onSourceFileChanged(final int index, final boolean selected)
     {
-        String name;
-
-        if (e.getStateChange() == ItemEvent.SELECTED)
+        if (!selected)
         {
-            name = getPureText(((JCheckBox) e.getSource()).getText());
-            try
-            {
-                getService().getModel().sourceTranslationChanged(name);
-                updateTargetUIList();
-
-                // If another checkbox was previously selected, then deselect it.
-                updateSourceUIList(name);
-            }
-            catch (PropertiesModelException propertiesModelException)
-            {
-                propertiesModelException.printStackTrace();
-            }
+            return;
         }
-    }
 
-    private void updateSourceUIList(final String reference)
-    {
-        JCheckBox element;
-        String name;
+        TranslationFile source = sourceTranslationList.getItemAt(index);
+        try
+        {
+            getService().getModel().sourceTranslationChanged(Objects.requireNonNull(source).getLocale());
+            updateTargetUIList();
 
-        ListModel<JCheckBox> model = sourceTranslationList.getModel();
-        for (int i = 0; i < model.getSize(); i++)
+            // If another checkbox was previously selected, then deselect it.
+            updateSourceUIList(source);
+        }
+        catch (PropertiesModelException propertiesModelException)
         {
-            element = model.getElementAt(i);
-            name = getPureText(element.getText());
-            if (!name.equals(reference))
-            {
-                element.setSelected(false);
-            }
+            propertiesModelException.printStackTrace();
         }
     }
 
-    private void updateTargetUIList()
+    private void updateSourceUIList(final @NonNull TranslationFile reference)
     {
-        DefaultListModel<JCheckBox> model = new DefaultListModel<>();
-        JCheckBox checkBox;
-
-        targetTranslationList.clear();
+        TranslationFile element;
 
-        for (Map.Entry<Locale, TranslationFile> entry : getService().getModel().getTargetTranslation().entrySet())
+        for (int i = 0; i < sourceTranslationList.getItemsCount(); i++)
         {
-            if (!entry.getKey().equals(getService().getModel().getSourceTranslation().getLocale()))
+            element = sourceTranslationList.getItemAt(i);
+            if (element != null && element != reference)
             {
-                checkBox = new JCheckBox(entry.getValue().getUILabel());
-                checkBox.addItemListener(this::onTargetFileChanged);
-                model.addElement(checkBox);
+                sourceTranslationList.setItemSelected(element, false);
             }
         }
-
-        targetTranslationList.setModel(model);
+        sourceTranslationList.repaint();
     }
 
-    /**
-     * A target translation properties file selection has changed (checked / unchecked).
-     * @param event Item event.
-     */
-    private void onTargetFileChanged(ItemEvent event)
+    private void updateTargetUIList()
     {
-        JCheckBox checkbox;
-        String name;
-        ListModel<JCheckBox> model = targetTranslationList.getModel();
-
-        getService().getModel().getTargetTranslationSelected().clear();
-
-        for (int i = 0; i < model.getSize(); i++)
-        {
-            checkbox = model.getElementAt(i);
-            name = getPureText(checkbox.getText());
-            if (checkbox.isSelected())
-            {
-                getService().getModel().selectTarget(name);
-            }
-            else
-            {
-                getService().getModel().unselectTarget(name);
-            }
-        }
+        targetTranslationModel.setModel(getService().getModel());
     }
 
     /**
@@ -260,10 +246,4 @@ public class RBTToolWindow
     {
         return Objects.requireNonNull(project).getService(RBTService.class);
     }
-
-    public String getPureText(final @NonNull String value)
-    {
-        String[] parts = value.split(" \\(");
-        return parts.length > 0 ? HTMLString.removeHtml(parts[0]) : HTMLString.removeHtml(value);
-    }
 }
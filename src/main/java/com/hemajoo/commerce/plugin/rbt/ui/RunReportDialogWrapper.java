@@ -0,0 +1,108 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.ui;
+
+import com.hemajoo.commerce.plugin.rbt.service.TranslationRunReport;
+import com.hemajoo.commerce.plugin.rbt.util.RBTMessageNotifier;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.util.ui.FormBuilder;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Run report dialog wrapper for {@code Resource Bundle Translator} plugin, the report can be exported as JSON.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class RunReportDialogWrapper extends DialogWrapper
+{
+    private final Project project;
+    private final TranslationRunReport report;
+
+    public RunReportDialogWrapper(final @NonNull Project project, final @NonNull TranslationRunReport report)
+    {
+        super(project, true);
+        this.project = project;
+        this.report = report;
+        init();
+        setTitle("Translation Run Report");
+    }
+
+    @Nullable
+    @Override
+    protected JComponent createCenterPanel()
+    {
+        FormBuilder builder = FormBuilder.createFormBuilder();
+        for (Map.Entry<String, String> item : report.getItems().entrySet())
+        {
+            builder.addLabeledComponent(item.getKey() + ":", new JBLabel(item.getValue()));
+        }
+
+        return builder.getPanel();
+    }
+
+    @Override
+    protected Action @NotNull [] createLeftSideActions()
+    {
+        return new Action[] { new DialogWrapperAction("Export JSON...")
+        {
+            @Override
+            protected void doAction(ActionEvent event)
+            {
+                export();
+            }
+        }};
+    }
+
+    /**
+     * Exports the report to a JSON file chosen by the user.
+     */
+    private void export()
+    {
+        VirtualFileWrapper wrapper = FileChooserFactory.getInstance()
+                .createSaveFileDialog(new FileSaverDescriptor("Export Run Report", "Export the run report as JSON", "json"), project)
+                .save((Path) null, "translation-report.json");
+        if (wrapper == null)
+        {
+            return;
+        }
+
+        try (Writer writer = Files.newBufferedWriter(wrapper.getFile().toPath(), StandardCharsets.UTF_8))
+        {
+            report.toJson(writer);
+        }
+        catch (IOException e)
+        {
+            RBTMessageNotifier.error(project, String.format("Cannot export run report due to: %s", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.ui;
+
+import com.hemajoo.commerce.plugin.rbt.model.PropertiesModel;
+import com.hemajoo.commerce.plugin.rbt.model.TranslationFile;
+import com.hemajoo.commerce.plugin.rbt.model.TranslationStatus;
+import com.intellij.openapi.vfs.VirtualFile;
+import lombok.NonNull;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+
+/**
+ * Table model of the target translation files of the {@code Resource Bundle Translator} tool window, backed directly
+ * by the {@link PropertiesModel}: the selection column reads and writes the selection of the model and each change
+ * only repaints the changed cells.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TargetTranslationTableModel extends AbstractTableModel
+{
+    /**
+     * Selection column.
+     */
+    public static final int COLUMN_SELECTED = 0;
+
+    /**
+     * Target translation file column.
+     */
+    public static final int COLUMN_FILE = 1;
+
+    /**
+     * Translation status column.
+     */
+    public static final int COLUMN_STATUS = 2;
+
+    /**
+     * Column names.
+     */
+    private static final String[] COLUMN_NAMES = { "", "Target", "Status" };
+
+    /**
+     * Properties model ({@code null} if no resource bundle is loaded).
+     */
+    private PropertiesModel model;
+
+    /**
+     * Target translation files, sorted by file name.
+     */
+    private final List<TranslationFile> targets = new ArrayList<>();
+
+    /**
+     * Row index per target file.
+     */
+    private final Map<VirtualFile, Integer> rows = new HashMap<>();
+
+    /**
+     * Status of the last translation run per target file, kept when the resource bundle is loaded again.
+     */
+    private final Map<VirtualFile, TranslationStatus> statuses = new HashMap<>();
+
+    /**
+     * Sets the properties model whose target translation files are listed.
+     * @param model Properties model ({@code null} to clear the table).
+     */
+    public void setModel(final PropertiesModel model)
+    {
+        this.model = model;
+        targets.clear();
+        rows.clear();
+
+        if (model != null)
+        {
+            targets.addAll(model.getTargetTranslation().values());
+            targets.sort(Comparator.comparing(target -> target.getFile().getName()));
+            for (int i = 0; i < targets.size(); i++)
+            {
+                rows.put(targets.get(i).getFile().getVirtualFile(), i);
+            }
+        }
+
+        fireTableDataChanged();
+    }
+
+    /**
+     * Notifies the table the selection of the model changed.
+     */
+    public void selectionChanged()
+    {
+        if (!targets.isEmpty())
+        {
+            fireTableChanged(new TableModelEvent(this, 0, targets.size() - 1, COLUMN_SELECTED));
+        }
+    }
+
+    /**
+     * Updates the status of target translation files.
+     * @param changed Translation statuses per target file.
+     */
+    public void statusChanged(final @NonNull Map<VirtualFile, TranslationStatus> changed)
+    {
+        statuses.putAll(changed);
+
+        Integer row;
+        for (VirtualFile file : changed.keySet())
+        {
+            row = rows.get(file);
+            if (row != null)
+            {
+                fireTableCellUpdated(row, COLUMN_STATUS);
+            }
+        }
+    }
+
+    /**
+     * Returns the target translation file of a row.
+     * @param row Row index.
+     * @return Target translation file.
+     */
+    public TranslationFile getTarget(final int row)
+    {
+        return targets.get(row);
+    }
+
+    @Override
+    public int getRowCount()
+    {
+        return targets.size();
+    }
+
+    @Override
+    public int getColumnCount()
+    {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(final int column)
+    {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(final int column)
+    {
+        switch (column)
+        {
+            case COLUMN_SELECTED:
+                return Boolean.class;
+
+            case COLUMN_FILE:
+                return TranslationFile.class;
+
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(final int row, final int column)
+    {
+        return column == COLUMN_SELECTED;
+    }
+
+    @Override
+    public Object getValueAt(final int row, final int column)
+    {
+        TranslationFile target = targets.get(row);
+
+        switch (column)
+        {
+            case COLUMN_SELECTED:
+                return model.isTargetSelected(target.getLocale());
+
+            case COLUMN_FILE:
+                return target;
+
+            default:
+                TranslationStatus status = statuses.get(target.getFile().getVirtualFile());
+                return status != null ? status.getLabel() : "";
+        }
+    }
+
+    @Override
+    public void setValueAt(final Object value, final int row, final int column)
+    {
+        if (column != COLUMN_SELECTED)
+        {
+            return;
+        }
+
+        TranslationFile target = targets.get(row);
+        if (Boolean.TRUE.equals(value))
+        {
+            model.selectTarget(target.getLocale());
+        }
+        else
+        {
+            model.unselectTarget(target.getLocale());
+        }
+        fireTableCellUpdated(row, column);
+    }
+}
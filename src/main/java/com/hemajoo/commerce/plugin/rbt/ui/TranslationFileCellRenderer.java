@@ -0,0 +1,44 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.ui;
+
+import com.hemajoo.commerce.plugin.rbt.model.TranslationFile;
+import com.intellij.ui.ColoredTableCellRenderer;
+import com.intellij.ui.SimpleTextAttributes;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+
+/**
+ * Renders a translation file in a table cell as its file name followed by its locale description, without parsing an
+ * HTML label for each painted cell.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TranslationFileCellRenderer extends ColoredTableCellRenderer
+{
+    @Override
+    protected void customizeCellRenderer(@NotNull JTable table, Object value, boolean selected, boolean hasFocus, int row, int column)
+    {
+        if (value instanceof TranslationFile)
+        {
+            TranslationFile file = (TranslationFile) value;
+            append(file.getFile().getName());
+            append(" (" + file.getLocaleLabel() + ")", SimpleTextAttributes.GRAYED_ATTRIBUTES);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.util;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.util.diff.Diff;
+import com.intellij.util.diff.FilesTooBigForDiffException;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Updates the text of a document with minimal range edits instead of replacing its whole text.
+ * <br>
+ * The current and the new texts are compared line by line and only the changed line ranges are replaced, so the
+ * unchanged lines keep their PSI, markers and caret positions, and the undo entry only holds the changes.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class RBTDocumentPatcher
+{
+    private RBTDocumentPatcher()
+    {
+        // Avoid direct instantiation!
+    }
+
+    /**
+     * Updates the text of a document, must be called inside a write action.
+     * @param document Document.
+     * @param text New text of the document.
+     * @return Number of replaced ranges.
+     */
+    public static int apply(final @NonNull Document document, final @NonNull String text)
+    {
+        CharSequence current = document.getImmutableCharSequence();
+        String[] before = splitLines(current);
+        String[] after = splitLines(text);
+
+        Diff.Change change;
+        try
+        {
+            change = Diff.buildChanges(before, after);
+        }
+        catch (FilesTooBigForDiffException e)
+        {
+            document.setText(text);
+            return 1;
+        }
+
+        if (change == null)
+        {
+            return 0;
+        }
+
+        // Offset of the start of each line of the current text, plus the end of the text.
+        int[] offsets = new int[before.length + 1];
+        for (int i = 0; i < before.length; i++)
+        {
+            offsets[i + 1] = offsets[i] + before[i].length();
+        }
+
+        List<Diff.Change> changes = new ArrayList<>();
+        for (; change != null; change = change.link)
+        {
+            changes.add(change);
+        }
+
+        // Apply the changes from the end of the document so the offsets of the preceding ones remain valid.
+        StringBuilder replacement = new StringBuilder();
+        for (int i = changes.size() - 1; i >= 0; i--)
+        {
+            change = changes.get(i);
+
+            replacement.setLength(0);
+            for (int line = change.line1; line < change.line1 + change.inserted; line++)
+            {
+                replacement.append(after[line]);
+            }
+
+            document.replaceString(offsets[change.line0], offsets[change.line0 + change.deleted], replacement);
+        }
+
+        return changes.size();
+    }
+
+    /**
+     * Splits a text into lines, each line keeping its line separator so the lines concatenate back to the text.
+     * @param text Text.
+     * @return Lines.
+     */
+    private static String[] splitLines(final @NonNull CharSequence text)
+    {
+        List<String> lines = new ArrayList<>();
+
+        int start = 0;
+        for (int i = 0; i < text.length(); i++)
+        {
+            if (text.charAt(i) == '\n')
+            {
+                lines.add(text.subSequence(start, i + 1).toString());
+                start = i + 1;
+            }
+        }
+
+        if (start < text.length())
+        {
+            lines.add(text.subSequence(start, text.length()).toString());
+        }
+
+        return lines.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.util;
+
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.project.Project;
+import lombok.NonNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Provides the locations of the files stored by the {@code Resource Bundle Translator} plugin.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class RBTStorage
+{
+    /**
+     * Name of the plugin directory under the IDE system directory.
+     */
+    private static final String DIRECTORY = "resource-bundle-translator";
+
+    /**
+     * Name of the directory containing the project directories.
+     */
+    private static final String PROJECTS_DIRECTORY = "projects";
+
+    /**
+     * Maximum length (in bytes) of a string read from a storage file, a longer one denotes a corrupted file.
+     */
+    private static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+    private RBTStorage()
+    {
+        // Avoid direct instantiation!
+    }
+
+    /**
+     * Returns the plugin directory under the IDE system directory.
+     * @return Directory path.
+     */
+    public static Path getApplicationDirectory()
+    {
+        return Paths.get(PathManager.getSystemPath(), DIRECTORY);
+    }
+
+    /**
+     * Returns the plugin directory of a project under the IDE system directory.
+     * @param project Project.
+     * @return Directory path.
+     */
+    public static Path getProjectDirectory(final @NonNull Project project)
+    {
+        return getApplicationDirectory()
+                .resolve(PROJECTS_DIRECTORY)
+                .resolve(project.getName() + "." + project.getLocationHash());
+    }
+
+    /**
+     * Writes a string as its length followed by its UTF-8 bytes.
+     * @param output Output stream.
+     * @param value String to write.
+     * @throws IOException Thrown in case an error occurred while writing the string.
+     */
+    public static void writeString(final @NonNull DataOutputStream output, final @NonNull String value) throws IOException
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     * @param input Input stream.
+     * @return String.
+     * @throws IOException Thrown in case an error occurred while reading the string or its length is invalid (truncated
+     * or corrupted file).
+     */
+    public static String readString(final @NonNull DataInputStream input) throws IOException
+    {
+        int length = input.readInt();
+        if (length < 0 || length > MAX_STRING_LENGTH)
+        {
+            throw new IOException("Invalid string length: " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.service;
+
+import com.hemajoo.commerce.plugin.rbt.translation.GoogleTranslationRequest;
+import com.hemajoo.commerce.plugin.rbt.translation.GoogleTranslationRequestEntry;
+import com.hemajoo.commerce.plugin.rbt.translation.IBatchTranslationProcessor;
+import com.hemajoo.commerce.plugin.rbt.translation.ProviderTranslationProcess;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationBatch;
+import com.hemajoo.commerce.plugin.rbt.translation.TranslationDeduplicator;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import lombok.NonNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationProcess;
+import org.ressec.core.extension.i18n.translation.engine.ITranslationRequestEntry;
+import org.ressec.core.extension.i18n.translation.engine.TranslationException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the sharing of the requests of identical source texts between translation processes, and the isolation of
+ * their failures, by the {@link TranslationExecutor} and the {@link AsyncTranslationExecutor}.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TranslationExecutorTest
+{
+    /**
+     * Source text whose request always fails.
+     */
+    private static final String FAILING = "Failing";
+
+    /**
+     * Executor service running the workers, one per translation process, or the batches of the asynchronous executor.
+     */
+    private ExecutorService executor;
+
+    @Before
+    public void setUp()
+    {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDuplicateTranslatedWithLeader()
+    {
+        assertDuplicateTranslatedWithLeader(false);
+    }
+
+    @Test
+    public void testDuplicateTranslatedWithLeaderAsync()
+    {
+        assertDuplicateTranslatedWithLeader(true);
+    }
+
+    @Test
+    public void testDuplicateFailedWithLeader()
+    {
+        assertDuplicateFailedWithLeader(false);
+    }
+
+    @Test
+    public void testDuplicateFailedWithLeaderAsync()
+    {
+        assertDuplicateFailedWithLeader(true);
+    }
+
+    @Test
+    public void testDuplicateFailedWithLeaderNeverSent()
+    {
+        assertDuplicateFailedWithLeaderNeverSent(false);
+    }
+
+    @Test
+    public void testDuplicateFailedWithLeaderNeverSentAsync()
+    {
+        assertDuplicateFailedWithLeaderNeverSent(true);
+    }
+
+    /**
+     * Asserts the duplicate of a translated leader, in another translation process with another locale of the same
+     * language, receives its translation from a single request.
+     * @param async True to use the asynchronous executor, false otherwise.
+     */
+    private void assertDuplicateTranslatedWithLeader(final boolean async)
+    {
+        StubBatchTranslationProcessor processor = new StubBatchTranslationProcessor();
+        ITranslationProcess first = processor.createProcess(Locale.FRENCH, "Hello", "World");
+        ITranslationProcess second = processor.createProcess(Locale.CANADA_FRENCH, " Hello ");
+
+        AbstractTranslationExecutor executor = execute(async, processor);
+
+        assertTrue(executor.getFailures().isEmpty());
+        assertEquals(2, processor.getRequestCount());
+        assertTrue(processor.isTranslated(first));
+        assertTrue(processor.isTranslated(second));
+    }
+
+    /**
+     * Asserts the translation process of the duplicate of a leader whose request failed is reported as failed.
+     * @param async True to use the asynchronous executor, false otherwise.
+     */
+    private void assertDuplicateFailedWithLeader(final boolean async)
+    {
+        StubBatchTranslationProcessor processor = new StubBatchTranslationProcessor();
+        ITranslationProcess first = processor.createProcess(Locale.FRENCH, FAILING);
+        ITranslationProcess second = processor.createProcess(Locale.CANADA_FRENCH, "World", FAILING);
+
+        AbstractTranslationExecutor executor = execute(async, processor);
+
+        assertEquals(Set.of(first, second), executor.getFailures().keySet());
+        assertFalse(processor.isTranslated(first));
+        assertFalse(processor.isTranslated(second));
+    }
+
+    /**
+     * Asserts the translation process of the duplicate of a leader whose request was never sent, because another
+     * request of its translation process failed before, is reported as failed.
+     * @param async True to use the asynchronous executor, false otherwise.
+     */
+    private void assertDuplicateFailedWithLeaderNeverSent(final boolean async)
+    {
+        StubBatchTranslationProcessor processor = new StubBatchTranslationProcessor();
+        ITranslationProcess first = processor.createProcess(Locale.FRENCH, FAILING, "Hello");
+        ITranslationProcess second = processor.createProcess(Locale.CANADA_FRENCH, "Hello");
+        ITranslationProcess third = processor.createProcess(Locale.GERMAN, "Hello");
+
+        AbstractTranslationExecutor executor = execute(async, processor);
+
+        assertEquals(Set.of(first, second), executor.getFailures().keySet());
+        assertEquals(2, processor.getRequestCount());
+        assertFalse(processor.isTranslated(second));
+        assertTrue(processor.isTranslated(third));
+    }
+
+    /**
+     * Executes the translation processes of a processor.
+     * <br>
+     * The asynchronous executor sends a single batch at a time so that a batch following a failed one of the same
+     * translation process is never sent.
+     * @param async True to use the asynchronous executor, false otherwise.
+     * @param processor Translation processor.
+     * @return Executed translation executor.
+     */
+    private AbstractTranslationExecutor execute(final boolean async, final @NonNull StubBatchTranslationProcessor processor)
+    {
+        AbstractTranslationExecutor translationExecutor = async
+                ? new AsyncTranslationExecutor(processor.getProcesses(), 1, executor)
+                : new TranslationExecutor(processor.getProcesses(), executor);
+
+        translationExecutor.execute(new EmptyProgressIndicator());
+        return translationExecutor;
+    }
+
+    /**
+     * Batch translation processor sending each request entry in its own batch and failing the {@link #FAILING} source
+     * text.
+     * <br>
+     * The translation processes are partitioned in their creation order and all of them are partitioned before any
+     * batch is translated, so that the leaders and their duplicates do not depend on the scheduling of the workers.
+     */
+    private static final class StubBatchTranslationProcessor implements IBatchTranslationProcessor
+    {
+        /**
+         * Translation processes in their creation order.
+         */
+        private final List<ITranslationProcess> processes = new ArrayList<>();
+
+        /**
+         * Index of the request entries with the same source text.
+         */
+        private final TranslationDeduplicator deduplicator = new TranslationDeduplicator();
+
+        /**
+         * Translated request entries.
+         */
+        private final Set<ITranslationRequestEntry> translated = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        /**
+         * Translation processes left untranslated by the failure of another one.
+         */
+        private final Map<ITranslationProcess, Exception> sharedFailures = new ConcurrentHashMap<>();
+
+        /**
+         * Number of partitioned translation processes.
+         */
+        private int partitioned;
+
+        /**
+         * Number of sent requests.
+         */
+        private int requestCount;
+
+        /**
+         * Creates a translation process of request entries requiring a translation.
+         * @param target Target locale.
+         * @param sources Source texts of the request entries.
+         * @return Translation process.
+         */
+        public ITranslationProcess createProcess(final @NonNull Locale target, final @NonNull String... sources)
+        {
+            List<ITranslationRequestEntry> entries = new ArrayList<>();
+            for (int i = 0; i < sources.length; i++)
+            {
+                entries.add(new GoogleTranslationRequestEntry("key." + i, sources[i], true));
+            }
+
+            ITranslationProcess process = new ProviderTranslationProcess(this);
+            process.setRequest(new StubTranslationRequest(target, entries));
+            processes.add(process);
+
+            return process;
+        }
+
+        /**
+         * Returns the translation processes in their creation order.
+         * @return List of translation processes.
+         */
+        public List<ITranslationProcess> getProcesses()
+        {
+            return Collections.unmodifiableList(processes);
+        }
+
+        /**
+         * Returns the number of sent requests.
+         * @return Number of requests.
+         */
+        public synchronized int getRequestCount()
+        {
+            return requestCount;
+        }
+
+        /**
+         * Returns if all the request entries of a translation process have been translated.
+         * @param process Translation process.
+         * @return True if all its request entries have been translated, false otherwise.
+         */
+        public boolean isTranslated(final @NonNull ITranslationProcess process)
+        {
+            for (ITranslationRequestEntry entry : process.getRequest().getEntries())
+            {
+                if (!translated.contains(entry))
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public List<TranslationBatch> partition(final @NonNull ITranslationProcess process, final @NonNull List<ITranslationRequestEntry> entries)
+        {
+            await(processes.indexOf(process));
+
+            List<TranslationBatch> batches = new ArrayList<>();
+            for (ITranslationRequestEntry entry : entries)
+            {
+                if (deduplicator.register(process, entry))
+                {
+                    batches.add(new TranslationBatch(List.of(entry)));
+                }
+            }
+
+            synchronized (this)
+            {
+                partitioned++;
+                notifyAll();
+            }
+
+            return batches;
+        }
+
+        @Override
+        public void translate(final @NonNull ITranslationProcess process, final @NonNull TranslationBatch batch) throws TranslationException
+        {
+            await(processes.size());
+
+            for (ITranslationRequestEntry entry : batch.getEntries())
+            {
+                translate(process, entry);
+            }
+        }
+
+        @Override
+        public void translate(final @NonNull ITranslationProcess process, final @NonNull ITranslationRequestEntry entry) throws TranslationException
+        {
+            synchronized (this)
+            {
+                requestCount++;
+            }
+
+            if (FAILING.equals(entry.getSource()))
+            {
+                throw new TranslationException("Cannot translate: " + entry.getSource());
+            }
+
+            translated.add(entry);
+            for (Map.Entry<ITranslationRequestEntry, ITranslationProcess> duplicate : deduplicator.release(process, entry))
+            {
+                translated.add(duplicate.getKey());
+            }
+        }
+
+        @Override
+        public Map<ITranslationProcess, Exception> getSharedFailures()
+        {
+            return Collections.unmodifiableMap(sharedFailures);
+        }
+
+        @Override
+        public void abandon(final @NonNull ITranslationProcess process, final @NonNull Exception cause)
+        {
+            for (Map.Entry<ITranslationRequestEntry, ITranslationProcess> released : deduplicator.releaseAll(process))
+            {
+                sharedFailures.putIfAbsent(released.getValue(), cause);
+            }
+        }
+
+        /**
+         * Waits until the given number of translation processes have been partitioned.
+         * @param count Number of partitioned translation processes.
+         */
+        private synchronized void await(final int count)
+        {
+            while (partitioned < count)
+            {
+                try
+                {
+                    wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Translation request of a fixed list of request entries.
+     */
+    private static final class StubTranslationRequest extends GoogleTranslationRequest
+    {
+        /**
+         * Request entries.
+         */
+        private final List<ITranslationRequestEntry> entries;
+
+        /**
+         * Creates a new translation request from English.
+         * @param target Target locale.
+         * @param entries Request entries.
+         */
+        public StubTranslationRequest(final @NonNull Locale target, final @NonNull List<ITranslationRequestEntry> entries)
+        {
+            this.entries = entries;
+
+            setSourceLocale(Locale.ENGLISH);
+            setTargetLocale(target);
+        }
+
+        @Override
+        public List<ITranslationRequestEntry> getEntries()
+        {
+            return entries;
+        }
+
+        @Override
+        public int getCount()
+        {
+            return entries.size();
+        }
+    }
+}
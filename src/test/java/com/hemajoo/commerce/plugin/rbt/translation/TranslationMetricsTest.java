@@ -0,0 +1,186 @@
+/*
+ * Copyright(c) 2020 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.plugin.rbt.translation;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the latency histogram of the {@link TranslationMetrics}: the boundaries of its buckets and the percentiles
+ * computed from them.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TranslationMetricsTest
+{
+    @Test
+    public void testNoRequest()
+    {
+        TranslationMetrics metrics = new TranslationMetrics();
+
+        assertEquals(0, metrics.getLatencyPercentile(50));
+        assertEquals(0, metrics.getLatencyPercentile(100));
+        assertEquals(0, metrics.getLatencyMean());
+    }
+
+    @Test
+    public void testExactBuckets()
+    {
+        // Latencies up to 15 have a bucket of their own.
+        for (long latency = 0; latency < 16; latency++)
+        {
+            assertEquals(latency, getUpperBound(latency));
+        }
+    }
+
+    @Test
+    public void testNegativeLatency()
+    {
+        assertEquals(0, getUpperBound(-1));
+        assertEquals(0, getUpperBound(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void testSubBucketBoundaries()
+    {
+        // From 16 on, each power of two is split into 8 sub-buckets.
+        assertEquals(17, getUpperBound(16));
+        assertEquals(17, getUpperBound(17));
+        assertEquals(19, getUpperBound(18));
+        assertEquals(31, getUpperBound(30));
+        assertEquals(31, getUpperBound(31));
+        assertEquals(35, getUpperBound(32));
+        assertEquals(1_048_575, getUpperBound(1_000_000));
+        assertEquals(1_048_575, getUpperBound(1_048_575));
+        assertEquals(1_179_647, getUpperBound(1_048_576));
+    }
+
+    @Test
+    public void testLargeBuckets()
+    {
+        assertEquals((9L << 59) - 1, getUpperBound(1L << 62));
+        assertEquals(Long.MAX_VALUE, getUpperBound((15L << 59)));
+        assertEquals(Long.MAX_VALUE, getUpperBound(Long.MAX_VALUE - 1));
+        assertEquals(Long.MAX_VALUE, getUpperBound(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testBucketPrecision()
+    {
+        Random random = new Random(42);
+        long latency;
+        long upper;
+        for (int i = 0; i < 10_000; i++)
+        {
+            latency = random.nextLong() >>> (1 + random.nextInt(Long.SIZE - 1));
+            upper = getUpperBound(latency);
+
+            // The upper bound is in the bucket of the latency, within 1/8 of it, and the next value starts a bucket.
+            assertTrue(upper >= latency);
+            assertTrue(upper - latency <= latency / 8);
+            assertEquals(upper, getUpperBound(upper));
+            if (upper < Long.MAX_VALUE)
+            {
+                assertEquals(upper + 1, getLowerBound(upper + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles()
+    {
+        TranslationMetrics metrics = new TranslationMetrics();
+        for (long latency = 1; latency <= 10; latency++)
+        {
+            metrics.recordRequest(latency, 0);
+        }
+
+        assertEquals(1, metrics.getLatencyPercentile(0));
+        assertEquals(1, metrics.getLatencyPercentile(10));
+        assertEquals(5, metrics.getLatencyPercentile(50));
+        assertEquals(6, metrics.getLatencyPercentile(51));
+        assertEquals(10, metrics.getLatencyPercentile(95));
+        assertEquals(10, metrics.getLatencyPercentile(99));
+        assertEquals(10, metrics.getLatencyPercentile(100));
+        assertEquals(5, metrics.getLatencyMean());
+    }
+
+    @Test
+    public void testPercentilesOfDistribution()
+    {
+        // 90 requests of 1 ms, 9 requests of 50 ms and 1 request of 2 s.
+        TranslationMetrics metrics = new TranslationMetrics();
+        for (int i = 0; i < 90; i++)
+        {
+            metrics.recordRequest(1_000_000, 0);
+        }
+        for (int i = 0; i < 9; i++)
+        {
+            metrics.recordRequest(50_000_000, 0);
+        }
+        metrics.recordRequest(2_000_000_000, 0);
+
+        assertEquals(100, metrics.getRequests());
+        assertEquals(1_048_575, metrics.getLatencyPercentile(50));
+        assertEquals(1_048_575, metrics.getLatencyPercentile(90));
+        assertEquals(50_331_647, metrics.getLatencyPercentile(95));
+        assertEquals(50_331_647, metrics.getLatencyPercentile(99));
+        assertEquals(2_013_265_919, metrics.getLatencyPercentile(100));
+        assertEquals(25_400_000, metrics.getLatencyMean());
+    }
+
+    /**
+     * Returns the upper bound of the histogram bucket of a latency, as the maximum percentile of a single request.
+     * @param latency Latency (in nanoseconds).
+     * @return Upper bound (in nanoseconds).
+     */
+    private static long getUpperBound(final long latency)
+    {
+        TranslationMetrics metrics = new TranslationMetrics();
+        metrics.recordRequest(latency, 0);
+        return metrics.getLatencyPercentile(100);
+    }
+
+    /**
+     * Returns the lower bound of the histogram bucket of a latency, searched as the lowest latency sharing its upper
+     * bound.
+     * @param latency Latency (in nanoseconds).
+     * @return Lower bound (in nanoseconds).
+     */
+    private static long getLowerBound(final long latency)
+    {
+        long upper = getUpperBound(latency);
+        long low = 0;
+        long high = latency;
+        while (low < high)
+        {
+            long middle = low + (high - low) / 2;
+            if (getUpperBound(middle) == upper)
+            {
+                high = middle;
+            }
+            else
+            {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}